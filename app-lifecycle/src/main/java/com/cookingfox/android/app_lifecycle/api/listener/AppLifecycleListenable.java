@@ -1,18 +1,100 @@
 package com.cookingfox.android.app_lifecycle.api.listener;
 
+import java.util.Collection;
+
 /**
  * Provides the ability to listen for app lifecycle events.
  */
 public interface AppLifecycleListenable {
 
     /**
-     * Adds a listener for lifecycle events.
+     * Priority for infrastructure listeners, e.g. a dependency injection container or database,
+     * that must be set up before and torn down after other listeners.
+     */
+    int PRIORITY_HIGH = 100;
+
+    /**
+     * Priority of listeners that are added without an explicit priority.
+     */
+    int PRIORITY_DEFAULT = 0;
+
+    /**
+     * Priority for listeners that depend on all other listeners.
+     */
+    int PRIORITY_LOW = -100;
+
+    /**
+     * Adds a listener for lifecycle events, with the default priority.
      *
      * @param listener The listener to add.
      * @return The current instance, so method calls can be chained.
      */
     AppLifecycleListenable addListener(AppLifecycleEventListener listener);
 
+    /**
+     * Adds a listener for lifecycle events, with a dispatch priority. Listeners with a higher
+     * priority are notified first when the app is created, started and resumed, and last when the
+     * app is paused, stopped and finished. Listeners with the same priority are notified in reverse
+     * order of registration.
+     *
+     * @param listener The listener to add.
+     * @param priority The dispatch priority, e.g. {@link #PRIORITY_HIGH}.
+     * @return The current instance, so method calls can be chained.
+     */
+    AppLifecycleListenable addListener(AppLifecycleEventListener listener, int priority);
+
+    /**
+     * Adds a batch of listeners for lifecycle events, with the default priority. The batch is
+     * validated first and applied at once: if one of the listeners was already added, none of them
+     * are added.
+     *
+     * @param listeners The listeners to add.
+     * @return The current instance, so method calls can be chained.
+     */
+    AppLifecycleListenable addListeners(Collection<? extends AppLifecycleEventListener> listeners);
+
+    /**
+     * Adds a listener factory for the events of the listener interfaces, e.g. {@link OnAppStarted},
+     * with the default priority. The listener is only created when one of these events is first
+     * triggered, which keeps its class loading and construction off the app startup path.
+     *
+     * @param factory The factory that creates the listener.
+     * @param events  The listener interfaces of the events, e.g. `OnAppStarted.class`.
+     * @return The current instance, so method calls can be chained.
+     * @see AppLifecycleListenerFactory
+     */
+    AppLifecycleListenable addLazyListener(AppLifecycleListenerFactory factory, Class<?>... events);
+
+    /**
+     * Adds a listener for lifecycle events, which is only weakly referenced: when the listener is
+     * no longer used elsewhere, it can be garbage collected, after which it is removed
+     * automatically. Use this for listeners with a shorter lifespan than the app, e.g. presenters,
+     * that might not be removed explicitly.
+     *
+     * @param listener The listener to add.
+     * @return The current instance, so method calls can be chained.
+     */
+    AppLifecycleListenable addWeakListener(AppLifecycleEventListener listener);
+
+    /**
+     * Returns the session generation, which is incremented every time the app finishes and all
+     * listeners, except persistent listeners, are removed. A component can compare the generation
+     * in which it added its listener with the current generation, to check whether its
+     * registration is still live.
+     *
+     * @return The current session generation.
+     */
+    int getSessionGeneration();
+
+    /**
+     * Removes the weak listeners that were garbage collected. This also happens automatically
+     * before every lifecycle event is dispatched.
+     *
+     * @return The number of stale listeners that were removed.
+     * @see #addWeakListener(AppLifecycleEventListener)
+     */
+    int purgeStaleListeners();
+
     /**
      * Removes a listener for lifecycle events.
      *
@@ -21,4 +103,13 @@ public interface AppLifecycleListenable {
      */
     AppLifecycleListenable removeListener(AppLifecycleEventListener listener);
 
+    /**
+     * Removes a batch of listeners for lifecycle events. The batch is validated first and applied
+     * at once: if one of the listeners was not added, none of them are removed.
+     *
+     * @param listeners The listeners to remove.
+     * @return The current instance, so method calls can be chained.
+     */
+    AppLifecycleListenable removeListeners(Collection<? extends AppLifecycleEventListener> listeners);
+
 }
@@ -0,0 +1,26 @@
+package com.cookingfox.android.app_lifecycle.api.listener;
+
+/**
+ * Creates an app lifecycle listener when one of the events it was added for is first triggered,
+ * so the listener is not loaded and constructed during app startup. The created listener is cached
+ * and notified of the following events.
+ * <p>
+ * The factory is registered in place of the listener, so it can be removed using
+ * {@link AppLifecycleListenable#removeListener(AppLifecycleEventListener)}. Marker interfaces apply
+ * to the factory: implement {@link PersistentAppLifecycleEventListener} to keep it after the app
+ * finishes, or {@link AsyncAppLifecycleEventListener} to create and notify the listener on the
+ * background executor.
+ *
+ * @see AppLifecycleListenable#addLazyListener(AppLifecycleListenerFactory, Class[])
+ */
+public interface AppLifecycleListenerFactory extends AppLifecycleEventListener {
+
+    /**
+     * Creates the listener, which must implement the listener interfaces of the events the factory
+     * was added for. Called at most once.
+     *
+     * @return The listener.
+     */
+    AppLifecycleEventListener create();
+
+}
@@ -0,0 +1,9 @@
+package com.cookingfox.android.app_lifecycle.api.listener;
+
+/**
+ * If this interface is implemented, the listener will be notified of app lifecycle events on the
+ * manager's background executor instead of the main thread. Every listener receives its events in
+ * the order they were triggered.
+ */
+public interface AsyncAppLifecycleEventListener {
+}
@@ -1,6 +1,7 @@
 package com.cookingfox.android.app_lifecycle.api.manager;
 
 import android.app.Activity;
+import android.os.Bundle;
 
 import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleListenable;
 
@@ -14,6 +15,15 @@ public interface AppLifecycleManager extends AppLifecycleListenable {
      */
     void dispose();
 
+    /**
+     * Returns whether the current app session was restored from a saved instance state, i.e. the
+     * process was killed in the background and the system recreated the activity. Listeners can use
+     * this in `onAppCreated` to skip initialization that is only needed for a new app launch.
+     *
+     * @return Whether the current session was restored.
+     */
+    boolean isRestoredSession();
+
     /**
      * Trigger an activity create event.
      *
@@ -50,10 +60,52 @@ public interface AppLifecycleManager extends AppLifecycleListenable {
     void onStop(Activity origin);
 
     /**
-     * Trigger an activity finish event.
+     * Trigger an activity configuration change event: the activity is destroyed to be recreated
+     * with a new configuration, e.g. on rotation. The pause and stop events of the destroyed
+     * activity should not be triggered. The create, start and resume events of the recreated
+     * activity only update the origin, up to the state the destroyed activity was in, so listeners
+     * are not notified of the recreation.
+     *
+     * @param origin The activity that is destroyed.
+     */
+    void onConfigurationChange(Activity origin);
+
+    /**
+     * Trigger an activity release: the activity is destroyed without finishing and not for a
+     * configuration change, e.g. when the system reclaims a stopped activity to free memory. This
+     * is not an app lifecycle event: listeners are not notified and the session does not end,
+     * since the activity can be recreated from its saved state. The manager only releases its
+     * reference to the activity.
+     *
+     * @param origin The activity that is destroyed.
+     */
+    void onRelease(Activity origin);
+
+    /**
+     * Trigger an activity finish event: the activity is finishing and destroyed. Must also be
+     * triggered for activities that finish while they are not on top, e.g. by
+     * {@code finishAffinity()}, so the manager does not keep a reference to them.
      *
      * @param origin The activity that triggers the event.
      */
     void onFinish(Activity origin);
 
+    /**
+     * Saves the state of the app session to the instance state of the activity, so a session that
+     * is restored after process death can be told apart from a new app launch.
+     *
+     * @param origin   The activity that saves its instance state.
+     * @param outState The instance state of the activity.
+     */
+    void onSaveInstanceState(Activity origin, Bundle outState);
+
+    /**
+     * Restores the state of the app session from the saved instance state of the activity. Must be
+     * called before {@link #onCreate(Activity)}, when the saved instance state is not null.
+     *
+     * @param origin             The activity that is created.
+     * @param savedInstanceState The saved instance state of the activity.
+     */
+    void onRestoreInstanceState(Activity origin, Bundle savedInstanceState);
+
 }
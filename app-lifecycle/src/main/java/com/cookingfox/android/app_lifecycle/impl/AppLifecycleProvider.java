@@ -54,7 +54,10 @@ public final class AppLifecycleProvider {
     }
 
     /**
-     * Set a custom lifecycle manager instance.
+     * Set a custom lifecycle manager instance, e.g. an
+     * {@link com.cookingfox.android.app_lifecycle.impl.manager.ActivityCountingAppLifecycleManager}.
+     * Call this before {@link #initialize(Application)}, so the manager receives the activity
+     * lifecycle callbacks.
      *
      * @param manager The custom lifecycle manager instance.
      */
@@ -17,6 +17,10 @@ public class AppLifecycleActivity extends Activity {
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
+        if (savedInstanceState != null) {
+            AppLifecycleProvider.getManager().onRestoreInstanceState(this, savedInstanceState);
+        }
+
         AppLifecycleProvider.getManager().onCreate(this);
     }
 
@@ -41,7 +45,10 @@ public class AppLifecycleActivity extends Activity {
     protected void onPause() {
         super.onPause();
 
-        AppLifecycleProvider.getManager().onPause(this);
+        // recreated with a new configuration: not an app lifecycle event
+        if (!AppLifecycleActivityCompat.isChangingConfigurations(this)) {
+            AppLifecycleProvider.getManager().onPause(this);
+        }
     }
 
     @CallSuper
@@ -49,10 +56,33 @@ public class AppLifecycleActivity extends Activity {
     protected void onStop() {
         super.onStop();
 
-        AppLifecycleProvider.getManager().onStop(this);
+        // recreated with a new configuration: not an app lifecycle event
+        if (!AppLifecycleActivityCompat.isChangingConfigurations(this)) {
+            AppLifecycleProvider.getManager().onStop(this);
+        }
+    }
+
+    @CallSuper
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+
+        AppLifecycleProvider.getManager().onSaveInstanceState(this, outState);
+    }
+
+    @CallSuper
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
 
-        if (isFinishing()) {
+        if (AppLifecycleActivityCompat.isChangingConfigurations(this)) {
+            AppLifecycleProvider.getManager().onConfigurationChange(this);
+        } else if (isFinishing()) {
+            // also when the activity is not on top, e.g. `finishAffinity()`
             AppLifecycleProvider.getManager().onFinish(this);
+        } else {
+            // reclaimed by the system: not an app lifecycle event
+            AppLifecycleProvider.getManager().onRelease(this);
         }
     }
 
@@ -51,6 +51,10 @@ public class AppLifecycleActivityCallbacks implements ActivityLifecycleCallbacks
 
     @Override
     public void onActivityCreated(Activity activity, Bundle bundle) {
+        if (bundle != null) {
+            manager.onRestoreInstanceState(activity, bundle);
+        }
+
         manager.onCreate(activity);
     }
 
@@ -66,26 +70,36 @@ public class AppLifecycleActivityCallbacks implements ActivityLifecycleCallbacks
 
     @Override
     public void onActivityPaused(Activity activity) {
-        manager.onPause(activity);
+        // recreated with a new configuration: not an app lifecycle event
+        if (!activity.isChangingConfigurations()) {
+            manager.onPause(activity);
+        }
     }
 
     @Override
     public void onActivityStopped(Activity activity) {
-        manager.onStop(activity);
-
-        if (activity.isFinishing()) {
-            manager.onFinish(activity);
+        // recreated with a new configuration: not an app lifecycle event
+        if (!activity.isChangingConfigurations()) {
+            manager.onStop(activity);
         }
     }
 
     @Override
     public void onActivitySaveInstanceState(Activity activity, Bundle bundle) {
-        // ignore activity lifecycle event
+        manager.onSaveInstanceState(activity, bundle);
     }
 
     @Override
     public void onActivityDestroyed(Activity activity) {
-        // ignore activity lifecycle event: see `onActivityStopped`
+        if (activity.isChangingConfigurations()) {
+            manager.onConfigurationChange(activity);
+        } else if (activity.isFinishing()) {
+            // also when the activity is not on top, e.g. `finishAffinity()`
+            manager.onFinish(activity);
+        } else {
+            // reclaimed by the system: not an app lifecycle event
+            manager.onRelease(activity);
+        }
     }
 
 }
@@ -0,0 +1,25 @@
+package com.cookingfox.android.app_lifecycle.impl.activity;
+
+import android.annotation.TargetApi;
+import android.app.Activity;
+import android.os.Build;
+
+/**
+ * Helper for activity features that are not available on all supported SDK versions.
+ */
+public final class AppLifecycleActivityCompat {
+
+    /**
+     * Returns whether the activity is being destroyed to be recreated with a new configuration,
+     * e.g. on rotation. Always returns false before SDK 11, where this can not be detected.
+     *
+     * @param activity The activity to check.
+     * @return Whether the activity is changing configurations.
+     */
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    public static boolean isChangingConfigurations(Activity activity) {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB &&
+                activity.isChangingConfigurations();
+    }
+
+}
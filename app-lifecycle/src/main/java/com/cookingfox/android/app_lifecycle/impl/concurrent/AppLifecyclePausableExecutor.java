@@ -0,0 +1,183 @@
+package com.cookingfox.android.app_lifecycle.impl.concurrent;
+
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppFinished;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppStarted;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppStopped;
+
+import java.util.Iterator;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Scheduled executor that only runs tasks while the app is visible. Add it to the app lifecycle
+ * manager, so it is resumed when the app is started, paused when the app is stopped and shut down
+ * when the app is finished:
+ * <pre>
+ * AppLifecyclePausableExecutor executor = new AppLifecyclePausableExecutor(2);
+ * manager.addListener(executor);
+ * </pre>
+ * The executor is paused when it is created, since the app is not started yet when this is done
+ * in {@code Application.onCreate()}. Use {@link #resume()} when it is created while the app is
+ * visible.
+ * <p>
+ * While the executor is paused, submitted tasks are held in the queue, and worker threads that take
+ * a task wait before running it. Tasks that are already running are not interrupted. Periodic tasks
+ * are suspended as well: a task scheduled with a fixed delay continues one delay after the executor
+ * is resumed, but a task scheduled at a fixed rate runs the missed executions in quick succession,
+ * so a fixed delay is usually preferred.
+ * <p>
+ * When the app is finished, the executor is shut down: delayed and periodic tasks are cancelled
+ * and the tasks that are already queued are still run.
+ */
+public class AppLifecyclePausableExecutor extends ScheduledThreadPoolExecutor
+        implements OnAppStarted, OnAppStopped, OnAppFinished {
+
+    /**
+     * Guards {@link #paused}.
+     */
+    protected final ReentrantLock pauseLock = new ReentrantLock();
+
+    /**
+     * Signalled when the executor is resumed, to wake up the waiting worker threads.
+     */
+    protected final Condition unpaused = pauseLock.newCondition();
+
+    /**
+     * Whether worker threads should wait before running a task.
+     */
+    protected boolean paused = true;
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    public AppLifecyclePausableExecutor(int corePoolSize) {
+        super(corePoolSize);
+    }
+
+    public AppLifecyclePausableExecutor(int corePoolSize, ThreadFactory threadFactory) {
+        super(corePoolSize, threadFactory);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @return Whether the executor holds its tasks.
+     */
+    public boolean isPaused() {
+        pauseLock.lock();
+
+        try {
+            return paused;
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+
+    /**
+     * Holds the tasks that were not started yet, until the executor is resumed.
+     */
+    public void pause() {
+        pauseLock.lock();
+
+        try {
+            paused = true;
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+
+    /**
+     * Runs the held tasks and continues the periodic tasks.
+     */
+    public void resume() {
+        pauseLock.lock();
+
+        try {
+            paused = false;
+            unpaused.signalAll();
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // APP LIFECYCLE METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public void onAppStarted(Class<?> origin) {
+        resume();
+    }
+
+    @Override
+    public void onAppStopped(Class<?> origin) {
+        pause();
+    }
+
+    @Override
+    public void onAppFinished(Class<?> origin) {
+        cancelDelayedTasks();
+        shutdown();
+
+        // let the worker threads run the queued tasks and terminate
+        resume();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Cancels and removes the queued tasks that are periodic or not due yet, so only the tasks that
+     * are due are run after shutdown. The shutdown policy is not used for this, since on Java 8 and
+     * before Android O, disabling the execution of delayed tasks after shutdown also cancels the
+     * queued tasks without a delay, e.g. from {@link #execute(Runnable)}.
+     */
+    protected void cancelDelayedTasks() {
+        final Iterator<Runnable> iterator = getQueue().iterator();
+
+        while (iterator.hasNext()) {
+            final Runnable task = iterator.next();
+
+            if (!(task instanceof RunnableScheduledFuture)) {
+                continue;
+            }
+
+            final RunnableScheduledFuture<?> future = (RunnableScheduledFuture<?>) task;
+
+            if (future.isPeriodic() || future.getDelay(TimeUnit.NANOSECONDS) > 0) {
+                future.cancel(false);
+                remove(future);
+            }
+        }
+    }
+
+    /**
+     * Waits until the executor is resumed.
+     */
+    @Override
+    protected void beforeExecute(Thread thread, Runnable task) {
+        super.beforeExecute(thread, task);
+
+        pauseLock.lock();
+
+        try {
+            while (paused) {
+                unpaused.await();
+            }
+        } catch (InterruptedException e) {
+            // interrupted by shutdownNow(): restore the status, so the task can see it
+            thread.interrupt();
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,261 @@
+package com.cookingfox.android.app_lifecycle.impl.concurrent;
+
+import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleListenable;
+import com.cookingfox.android.app_lifecycle.impl.listener.PersistentAppLifecycleListener;
+import com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleClock;
+import com.cookingfox.android.app_lifecycle.impl.manager.HandlerAppLifecycleClock;
+
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+
+import static com.cookingfox.guava_preconditions.Preconditions.checkNotNull;
+
+/**
+ * Persistent app lifecycle listener that defers non-critical startup tasks, e.g. initializing an
+ * analytics SDK or warming up a cache, until the app is resumed for the first time, so they do not
+ * delay the first frame. Create it and schedule the tasks in {@code Application.onCreate()}:
+ * <pre>
+ * AppLifecycleStartupScheduler scheduler = new AppLifecycleStartupScheduler();
+ * manager.addListener(scheduler);
+ * scheduler.schedule(new InitAnalyticsTask(), AppLifecycleListenable.PRIORITY_HIGH);
+ * </pre>
+ * Tasks are released in priority order, and in the order they were scheduled for the same
+ * priority. By default, they are run on the main thread one at a time, each when the main thread
+ * is idle, i.e. has no pending messages, so drawing frames and handling input go first. When an
+ * executor is given, the tasks are run on that executor instead, also one at a time.
+ * <p>
+ * When the app is stopped, the tasks that were not run yet are postponed until the app is resumed
+ * again. Tasks that are scheduled after the first RESUME are run as soon as possible.
+ */
+public class AppLifecycleStartupScheduler extends PersistentAppLifecycleListener {
+
+    /**
+     * The clock that runs the tasks when the main thread is idle.
+     */
+    protected final AppLifecycleClock clock;
+
+    /**
+     * The executor to run the tasks on, or `null` to run them on the main thread.
+     */
+    protected final Executor executor;
+
+    /**
+     * Tasks that are waiting to be run, in release order.
+     */
+    protected final PriorityQueue<Task> pending = new PriorityQueue<Task>();
+
+    /**
+     * Runs the next pending task and posts the release of the one after it.
+     */
+    protected final Runnable release = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                runNext();
+            } finally {
+                synchronized (AppLifecycleStartupScheduler.this) {
+                    releasing = false;
+                    postRelease();
+                }
+            }
+        }
+    };
+
+    /**
+     * Whether the app was resumed and not stopped since.
+     */
+    protected boolean resumed;
+
+    /**
+     * Whether {@link #release} is posted or running, so only one task runs at a time.
+     */
+    protected boolean releasing;
+
+    /**
+     * Increments for every scheduled task, to keep the order of tasks with the same priority.
+     */
+    protected long sequence;
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    public AppLifecycleStartupScheduler() {
+        this(new HandlerAppLifecycleClock(), null);
+    }
+
+    public AppLifecycleStartupScheduler(Executor executor) {
+        this(null, checkNotNull(executor, "Executor can not be null"));
+    }
+
+    /**
+     * @param clock    The clock to run the tasks on the main thread with, or `null` when an
+     *                 executor is given.
+     * @param executor The executor to run the tasks on, or `null` to run them on the main thread.
+     */
+    protected AppLifecycleStartupScheduler(AppLifecycleClock clock, Executor executor) {
+        if (executor == null) {
+            checkNotNull(clock, "Clock can not be null");
+        }
+
+        this.clock = clock;
+        this.executor = executor;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Removes the task if it was not run yet.
+     *
+     * @param task The task to cancel.
+     * @return Whether the task was pending.
+     */
+    public synchronized boolean cancel(Runnable task) {
+        final Iterator<Task> iterator = pending.iterator();
+
+        while (iterator.hasNext()) {
+            if (iterator.next().runnable == task) {
+                iterator.remove();
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return The number of tasks that were not run yet.
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Schedules the task with the default priority.
+     *
+     * @param task The task to run after the first RESUME.
+     * @see #schedule(Runnable, int)
+     */
+    public void schedule(Runnable task) {
+        schedule(task, AppLifecycleListenable.PRIORITY_DEFAULT);
+    }
+
+    /**
+     * Schedules the task to be run after the app is resumed for the first time. Tasks with a
+     * higher priority are run first.
+     *
+     * @param task     The task to run after the first RESUME.
+     * @param priority The release priority, e.g. {@link AppLifecycleListenable#PRIORITY_HIGH}.
+     */
+    public synchronized void schedule(Runnable task, int priority) {
+        pending.offer(new Task(checkNotNull(task, "Task can not be null"), priority, ++sequence));
+
+        postRelease();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // APP LIFECYCLE METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public synchronized void onAppResumed(Class<?> origin) {
+        resumed = true;
+
+        postRelease();
+    }
+
+    @Override
+    public synchronized void onAppStopped(Class<?> origin) {
+        resumed = false;
+
+        // a task that is already submitted to the executor will see that the app was stopped
+        if (executor == null && releasing) {
+            clock.removeCallbacks(release);
+            releasing = false;
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Posts {@link #release} if the app is resumed, there are pending tasks and it is not posted
+     * or running yet.
+     */
+    protected synchronized void postRelease() {
+        if (!resumed || releasing || pending.isEmpty()) {
+            return;
+        }
+
+        releasing = true;
+
+        if (executor == null) {
+            clock.postWhenIdle(release);
+        } else {
+            executor.execute(release);
+        }
+    }
+
+    /**
+     * Runs the next pending task, if the app is resumed.
+     */
+    protected void runNext() {
+        final Task task;
+
+        synchronized (this) {
+            if (!resumed || (task = pending.poll()) == null) {
+                return;
+            }
+        }
+
+        // run without lock, so the task can schedule other tasks
+        task.runnable.run();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASS: task
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * A scheduled task with its release priority.
+     */
+    protected static final class Task implements Comparable<Task> {
+
+        /**
+         * The task to run.
+         */
+        final Runnable runnable;
+
+        /**
+         * The release priority: a higher priority is released first.
+         */
+        final int priority;
+
+        /**
+         * The order in which the task was scheduled, to release tasks with the same priority in
+         * that order.
+         */
+        final long sequence;
+
+        Task(Runnable runnable, int priority, long sequence) {
+            this.runnable = runnable;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            if (priority != other.priority) {
+                return priority > other.priority ? -1 : 1;
+            }
+
+            return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+        }
+
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.cookingfox.android.app_lifecycle.impl.concurrent;
+
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppFinished;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppStarted;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppStopped;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static com.cookingfox.guava_preconditions.Preconditions.checkArgument;
+import static com.cookingfox.guava_preconditions.Preconditions.checkNotNull;
+
+/**
+ * App lifecycle listener that sizes a thread pool for the app's visibility: when the app is
+ * stopped, the core pool size is reduced to the background core pool size, so the threads of a
+ * foreground-sized pool do not stay alive while the app is in the background. When the app is
+ * started again, the original core pool size is restored, and when the app is finished, the pool is
+ * shut down:
+ * <pre>
+ * ThreadPoolExecutor pool = new ThreadPoolExecutor(4, 4, 30, TimeUnit.SECONDS, queue);
+ * manager.addListener(new AppLifecycleThreadPoolSizer(pool, 1));
+ * </pre>
+ * Resizing does not interrupt running tasks: threads above the background core pool size terminate
+ * when they are idle, after the keep-alive time of the pool. The background core threads are kept,
+ * so with a background core pool size of 0, all threads terminate. The core thread time-out setting
+ * of the pool is not changed, since it is not available before SDK 9.
+ */
+public class AppLifecycleThreadPoolSizer implements OnAppStarted, OnAppStopped, OnAppFinished {
+
+    /**
+     * The sized thread pool.
+     */
+    protected final ThreadPoolExecutor pool;
+
+    /**
+     * The core pool size while the app is in the background.
+     */
+    protected final int backgroundCorePoolSize;
+
+    /**
+     * The core pool size before the app was stopped.
+     */
+    protected int foregroundCorePoolSize;
+
+    /**
+     * Whether the pool is sized for the background.
+     */
+    protected boolean shrunk;
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTOR
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @param pool                   The pool to size.
+     * @param backgroundCorePoolSize The core pool size while the app is in the background.
+     */
+    public AppLifecycleThreadPoolSizer(ThreadPoolExecutor pool, int backgroundCorePoolSize) {
+        checkArgument(backgroundCorePoolSize >= 0, "Background core pool size can not be negative");
+
+        this.pool = checkNotNull(pool, "Pool can not be null");
+        this.backgroundCorePoolSize = backgroundCorePoolSize;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @return The sized thread pool.
+     */
+    public ThreadPoolExecutor getPool() {
+        return pool;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // APP LIFECYCLE METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public synchronized void onAppStarted(Class<?> origin) {
+        if (!shrunk || pool.isShutdown()) {
+            return;
+        }
+
+        shrunk = false;
+
+        pool.setCorePoolSize(foregroundCorePoolSize);
+    }
+
+    @Override
+    public synchronized void onAppStopped(Class<?> origin) {
+        if (shrunk || pool.isShutdown()) {
+            return;
+        }
+
+        shrunk = true;
+        foregroundCorePoolSize = pool.getCorePoolSize();
+
+        // only interrupts idle threads: threads above the new core size time out when idle
+        pool.setCorePoolSize(Math.min(backgroundCorePoolSize, foregroundCorePoolSize));
+    }
+
+    @Override
+    public void onAppFinished(Class<?> origin) {
+        // queued tasks are still run
+        pool.shutdown();
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.cookingfox.android.app_lifecycle.impl.concurrent;
+
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static com.cookingfox.guava_preconditions.Preconditions.checkNotNull;
+
+/**
+ * Executor that runs its tasks one at a time, in submission order, on a delegate executor.
+ */
+public class SerialExecutor implements Executor {
+
+    /**
+     * The executor that runs the tasks.
+     */
+    protected final Executor delegate;
+
+    /**
+     * Tasks that are waiting to be run.
+     */
+    protected final Queue<Runnable> tasks = new LinkedList<Runnable>();
+
+    /**
+     * The task that is currently submitted to the delegate.
+     */
+    protected Runnable active;
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTOR
+    //----------------------------------------------------------------------------------------------
+
+    public SerialExecutor(Executor delegate) {
+        this.delegate = checkNotNull(delegate, "Delegate executor can not be null");
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public synchronized void execute(final Runnable task) {
+        checkNotNull(task, "Task can not be null");
+
+        tasks.offer(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                } finally {
+                    scheduleNext();
+                }
+            }
+        });
+
+        if (active == null) {
+            scheduleNext();
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Submits the next task to the delegate executor, if available. When the delegate rejects the
+     * task, it is dropped, so the next call to {@link #execute(Runnable)} submits the task after it.
+     */
+    protected synchronized void scheduleNext() {
+        if ((active = tasks.poll()) != null) {
+            try {
+                delegate.execute(active);
+            } catch (RuntimeException e) {
+                active = null;
+                throw e;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,632 @@
+package com.cookingfox.android.app_lifecycle.impl.manager;
+
+import android.app.Activity;
+import android.os.Bundle;
+
+import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleEventListener;
+import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleListenable;
+import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleListenerFactory;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppCreated;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppFinished;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppPaused;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppResumed;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppStarted;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppStopped;
+import com.cookingfox.android.app_lifecycle.api.listener.PersistentAppLifecycleEventListener;
+import com.cookingfox.android.app_lifecycle.api.listener.AsyncAppLifecycleEventListener;
+import com.cookingfox.android.app_lifecycle.api.manager.AppLifecycleManager;
+import com.cookingfox.android.app_lifecycle.impl.concurrent.SerialExecutor;
+
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static com.cookingfox.guava_preconditions.Preconditions.checkArgument;
+import static com.cookingfox.guava_preconditions.Preconditions.checkNotNull;
+
+/**
+ * Base app lifecycle manager implementation, which manages the listeners and notifies them of
+ * lifecycle events. Subclasses determine which activity lifecycle callbacks trigger which app
+ * lifecycle events, and call {@link #notifyListeners(AppLifecycleEvent, Class)}.
+ * <p>
+ * The STOP event can be delayed by a grace period, see {@link #setStopGracePeriod(long, TimeUnit)}.
+ * Subclasses call {@link #deferStop(Class)}, {@link #cancelPendingStop()} and
+ * {@link #flushPendingStop()} from the activity lifecycle methods, on the main thread.
+ */
+public abstract class AbstractAppLifecycleManager implements AppLifecycleManager {
+
+    /**
+     * Key of the saved instance state that marks an active app session.
+     */
+    protected static final String KEY_SESSION_ACTIVE =
+            "com.cookingfox.android.app_lifecycle.SESSION_ACTIVE";
+
+    /**
+     * A thread-safe set of app lifecycle event listeners, with a listener snapshot per event.
+     */
+    protected final AppLifecycleListenerRegistry listeners = new AppLifecycleListenerRegistry();
+
+    /**
+     * Optional listener dispatch timing instrumentation.
+     */
+    protected volatile ListenerDispatchMonitor dispatchMonitor;
+
+    /**
+     * Optional journal of the activity lifecycle calls.
+     */
+    protected volatile AppLifecycleJournal journal;
+
+    /**
+     * Executor that notifies the listeners which implement {@link AsyncAppLifecycleEventListener}.
+     * A single background thread is created when this is not set.
+     */
+    protected volatile Executor asyncExecutor;
+
+    /**
+     * The default async executor, when it was created by this manager.
+     */
+    protected ExecutorService defaultAsyncExecutor;
+
+    /**
+     * Whether the manager was disposed, after which the default async executor is not created
+     * again.
+     */
+    protected boolean disposed;
+
+    /**
+     * Delegates to the current async executor, so async listeners use the executor that is set
+     * when they are notified.
+     */
+    protected final Executor asyncDispatcher = new Executor() {
+        @Override
+        public void execute(Runnable task) {
+            getAsyncExecutor().execute(task);
+        }
+    };
+
+    /**
+     * Source of time and delayed execution. A main thread handler clock is created when this is not
+     * set.
+     */
+    protected AppLifecycleClock clock;
+
+    /**
+     * The time in milliseconds that the STOP event is delayed, or 0 to notify it immediately.
+     */
+    protected long stopGracePeriodMillis;
+
+    /**
+     * The origin of the STOP event that is delayed by the grace period, or `null` if none.
+     */
+    protected Class<? extends Activity> pendingStopOrigin;
+
+    /**
+     * Notifies the delayed STOP event when the grace period has passed.
+     */
+    protected final Runnable pendingStopTask = new Runnable() {
+        @Override
+        public void run() {
+            flushPendingStop();
+        }
+    };
+
+    /**
+     * Whether the session state is saved to the instance state of activities.
+     */
+    protected volatile boolean saveInstanceStateEnabled;
+
+    /**
+     * Whether the current session was restored from a saved instance state.
+     */
+    protected volatile boolean restoredSession;
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public AppLifecycleListenable addListener(AppLifecycleEventListener listener) {
+        return addListener(listener, PRIORITY_DEFAULT);
+    }
+
+    @Override
+    public AppLifecycleListenable addListener(AppLifecycleEventListener listener, int priority) {
+        if (!listeners.add(checkNotNull(listener, "Listener can not be null"), priority, false)) {
+            throw new IllegalStateException("Listener was already added: " + listener);
+        }
+
+        return this;
+    }
+
+    @Override
+    public AppLifecycleListenable addListeners(Collection<? extends AppLifecycleEventListener> listeners) {
+        checkNotNull(listeners, "Listeners can not be null");
+
+        if (!this.listeners.addAll(listeners, PRIORITY_DEFAULT)) {
+            throw new IllegalStateException("One or more listeners were already added: " + listeners);
+        }
+
+        return this;
+    }
+
+    @Override
+    public AppLifecycleListenable addLazyListener(AppLifecycleListenerFactory factory,
+                                                  Class<?>... events) {
+        checkNotNull(factory, "Factory can not be null");
+        checkNotNull(events, "Events can not be null");
+        checkArgument(events.length > 0, "Events can not be empty");
+
+        int eventMask = 0;
+
+        for (Class<?> listenerType : events) {
+            eventMask |= 1 << AppLifecycleEvent.forListenerType(listenerType).ordinal();
+        }
+
+        if (!listeners.add(factory, PRIORITY_DEFAULT, false, eventMask)) {
+            throw new IllegalStateException("Factory was already added: " + factory);
+        }
+
+        return this;
+    }
+
+    @Override
+    public AppLifecycleListenable addWeakListener(AppLifecycleEventListener listener) {
+        checkNotNull(listener, "Listener can not be null");
+
+        if (!listeners.add(listener, PRIORITY_DEFAULT, true)) {
+            throw new IllegalStateException("Listener was already added: " + listener);
+        }
+
+        return this;
+    }
+
+    @Override
+    public AppLifecycleListenable removeListener(AppLifecycleEventListener listener) {
+        checkNotNull(listener, "Listener can not be null");
+
+        // do not remove persistent listeners
+        final boolean found = listener instanceof PersistentAppLifecycleEventListener ?
+                listeners.contains(listener) : listeners.remove(listener);
+
+        if (!found) {
+            throw new IllegalStateException("Listener not found: " + listener);
+        }
+
+        return this;
+    }
+
+    @Override
+    public AppLifecycleListenable removeListeners(Collection<? extends AppLifecycleEventListener> listeners) {
+        checkNotNull(listeners, "Listeners can not be null");
+
+        // do not remove persistent listeners, but validate that they were added
+        final List<AppLifecycleEventListener> removable = new LinkedList<AppLifecycleEventListener>();
+
+        for (AppLifecycleEventListener listener : listeners) {
+            if (!(listener instanceof PersistentAppLifecycleEventListener)) {
+                removable.add(listener);
+            } else if (!this.listeners.contains(listener)) {
+                throw new IllegalStateException("Listener not found: " + listener);
+            }
+        }
+
+        if (!this.listeners.removeAll(removable)) {
+            throw new IllegalStateException("One or more listeners not found: " + listeners);
+        }
+
+        return this;
+    }
+
+    @Override
+    public int getSessionGeneration() {
+        return listeners.getSessionGeneration();
+    }
+
+    @Override
+    public boolean isRestoredSession() {
+        return restoredSession;
+    }
+
+    @Override
+    public void onRestoreInstanceState(Activity origin, Bundle savedInstanceState) {
+        checkNotNull(origin, "Origin activity can not be null");
+        checkNotNull(savedInstanceState, "Saved instance state can not be null");
+
+        restoreSession(savedInstanceState.getBoolean(KEY_SESSION_ACTIVE, false));
+    }
+
+    @Override
+    public void onSaveInstanceState(Activity origin, Bundle outState) {
+        checkNotNull(origin, "Origin activity can not be null");
+        checkNotNull(outState, "Out state can not be null");
+
+        if (saveInstanceStateEnabled && hasActiveSession()) {
+            outState.putBoolean(KEY_SESSION_ACTIVE, true);
+        }
+    }
+
+    @Override
+    public int purgeStaleListeners() {
+        return listeners.purgeStale();
+    }
+
+    /**
+     * Sets the executor that notifies the listeners which implement
+     * {@link AsyncAppLifecycleEventListener}. Every async listener receives its events one at a
+     * time, in the order they were triggered.
+     *
+     * @param asyncExecutor The executor for async listeners.
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = checkNotNull(asyncExecutor, "Async executor can not be null");
+    }
+
+    /**
+     * Sets the journal that records every activity lifecycle call and whether it was accepted, or
+     * `null` to disable recording.
+     *
+     * @param journal The journal, or `null`.
+     */
+    public void setJournal(AppLifecycleJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Sets whether the app session is saved to the instance state of activities, so a session that
+     * is restored after process death can be detected using {@link #isRestoredSession()}. Disabled
+     * by default.
+     *
+     * @param enabled Whether to save the session state.
+     */
+    public void setSaveInstanceStateEnabled(boolean enabled) {
+        this.saveInstanceStateEnabled = enabled;
+    }
+
+    /**
+     * Sets the source of time and delayed execution, e.g. a fake clock for tests.
+     *
+     * @param clock The clock.
+     */
+    public void setClock(AppLifecycleClock clock) {
+        this.clock = checkNotNull(clock, "Clock can not be null");
+    }
+
+    /**
+     * Sets the grace period by which the STOP event is delayed. When the app is started again
+     * within the grace period, e.g. when the user briefly leaves the app through the notification
+     * shade or a share sheet, neither the STOP nor the START event is notified. When the app
+     * finishes within the grace period, the STOP event is notified right before the FINISH event.
+     *
+     * @param gracePeriod The grace period, or 0 to notify the STOP event immediately (default).
+     * @param unit        The time unit of the grace period.
+     */
+    public void setStopGracePeriod(long gracePeriod, TimeUnit unit) {
+        checkArgument(gracePeriod >= 0, "Grace period can not be negative");
+        checkNotNull(unit, "Time unit can not be null");
+
+        this.stopGracePeriodMillis = unit.toMillis(gracePeriod);
+    }
+
+    /**
+     * Sets the monitor that times every listener call, or `null` to disable timing. When disabled,
+     * dispatching only costs a single extra branch.
+     *
+     * @param dispatchMonitor The dispatch monitor, or `null`.
+     */
+    public void setDispatchMonitor(ListenerDispatchMonitor dispatchMonitor) {
+        this.dispatchMonitor = dispatchMonitor;
+    }
+
+    @Override
+    public void dispose() {
+        // clear listeners
+        listeners.clear();
+
+        synchronized (this) {
+            disposed = true;
+
+            if (defaultAsyncExecutor != null) {
+                defaultAsyncExecutor.shutdown();
+                defaultAsyncExecutor = null;
+            }
+        }
+
+        asyncExecutor = null;
+
+        // drop the pending STOP event
+        if (pendingStopOrigin != null) {
+            pendingStopOrigin = null;
+            getClock().removeCallbacks(pendingStopTask);
+        }
+
+        restoredSession = false;
+    }
+
+    /**
+     * Cancels the pending STOP event, when the app is started again within the grace period.
+     *
+     * @return Whether a pending STOP event was cancelled, in which case the START event should not
+     * be notified.
+     */
+    protected boolean cancelPendingStop() {
+        if (pendingStopOrigin == null) {
+            return false;
+        }
+
+        pendingStopOrigin = null;
+        getClock().removeCallbacks(pendingStopTask);
+
+        return true;
+    }
+
+    /**
+     * Ends the app session after the FINISH event: removes all listeners, except persistent
+     * listeners, and resets the restored state.
+     */
+    protected void endSession() {
+        listeners.clearSession();
+        restoredSession = false;
+    }
+
+    /**
+     * Delays the STOP event by the grace period, if one is set.
+     *
+     * @param origin The class of activity that triggered the event.
+     * @return Whether the STOP event was delayed, in which case it should not be notified now.
+     */
+    protected boolean deferStop(Class<? extends Activity> origin) {
+        if (stopGracePeriodMillis == 0) {
+            return false;
+        }
+
+        pendingStopOrigin = origin;
+        getClock().postDelayed(pendingStopTask, stopGracePeriodMillis);
+
+        return true;
+    }
+
+    /**
+     * Notifies the pending STOP event immediately, e.g. when the grace period has passed or right
+     * before the FINISH event.
+     */
+    protected void flushPendingStop() {
+        final Class<? extends Activity> origin = pendingStopOrigin;
+
+        if (origin == null) {
+            return;
+        }
+
+        pendingStopOrigin = null;
+        getClock().removeCallbacks(pendingStopTask);
+
+        notifyListeners(AppLifecycleEvent.STOP, origin);
+    }
+
+    /**
+     * Marks the session as restored when an active session was saved, but this manager has no
+     * active session, which means the process was killed and the activity is recreated.
+     *
+     * @param savedSessionActive Whether the saved instance state contains an active session.
+     */
+    protected void restoreSession(boolean savedSessionActive) {
+        if (saveInstanceStateEnabled && savedSessionActive && !hasActiveSession()) {
+            restoredSession = true;
+        }
+    }
+
+    /**
+     * @return Whether an app session is active, i.e. an activity was created and the app did not
+     * finish yet.
+     */
+    protected abstract boolean hasActiveSession();
+
+    /**
+     * Records the activity lifecycle call in the journal, if one is set.
+     *
+     * @param call    The event ordinal of the call, or a call code, e.g.
+     *                {@link AppLifecycleJournal#CALL_CONFIGURATION_CHANGE}.
+     * @param origin  The activity that made the call.
+     * @param outcome The outcome, e.g. {@link AppLifecycleJournal#ACCEPTED}.
+     */
+    protected void journal(int call, Activity origin, byte outcome) {
+        final AppLifecycleJournal currentJournal = journal;
+
+        if (currentJournal != null) {
+            currentJournal.record(call, origin.getClass(), outcome);
+        }
+    }
+
+    /**
+     * Returns the clock, creating a main thread handler clock if none was set.
+     *
+     * @return The clock.
+     */
+    protected AppLifecycleClock getClock() {
+        if (clock == null) {
+            clock = new HandlerAppLifecycleClock();
+        }
+
+        return clock;
+    }
+
+    /**
+     * Returns the executor for async listeners, creating a single background thread executor if
+     * none was set and the manager was not disposed.
+     *
+     * @return The executor for async listeners.
+     * @throws RejectedExecutionException when the manager was disposed and no executor was set.
+     */
+    protected synchronized Executor getAsyncExecutor() {
+        if (asyncExecutor == null) {
+            if (disposed) {
+                throw new RejectedExecutionException("App lifecycle manager was disposed");
+            }
+
+            defaultAsyncExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "AppLifecycleAsyncListeners");
+                    thread.setDaemon(true);
+
+                    return thread;
+                }
+            });
+
+            asyncExecutor = defaultAsyncExecutor;
+        }
+
+        return asyncExecutor;
+    }
+
+    /**
+     * @return Whether the manager was disposed.
+     */
+    protected synchronized boolean isDisposed() {
+        return disposed;
+    }
+
+    /**
+     * Calls the event method of a specific listener.
+     *
+     * @param event    The event to notify the listener of.
+     * @param listener The listener, which implements the event's listener interface.
+     * @param origin   The class of activity that triggered the event.
+     */
+    protected void notifyListener(AppLifecycleEvent event, AppLifecycleEventListener listener,
+                                  Class<? extends Activity> origin) {
+        switch (event) {
+            case CREATE:
+                ((OnAppCreated) listener).onAppCreated(origin);
+                break;
+            case START:
+                ((OnAppStarted) listener).onAppStarted(origin);
+                break;
+            case RESUME:
+                ((OnAppResumed) listener).onAppResumed(origin);
+                break;
+            case PAUSE:
+                ((OnAppPaused) listener).onAppPaused(origin);
+                break;
+            case STOP:
+                ((OnAppStopped) listener).onAppStopped(origin);
+                break;
+            case FINISH:
+                ((OnAppFinished) listener).onAppFinished(origin);
+                break;
+        }
+    }
+
+    /**
+     * Calls the event method of a specific listener and times the call, if a dispatch monitor is
+     * set.
+     *
+     * @param event    The event to notify the listener of.
+     * @param listener The listener, which implements the event's listener interface.
+     * @param origin   The class of activity that triggered the event.
+     */
+    protected void invokeListener(AppLifecycleEvent event, AppLifecycleEventListener listener,
+                                  Class<? extends Activity> origin) {
+        final ListenerDispatchMonitor monitor = dispatchMonitor;
+
+        if (monitor == null) {
+            notifyListener(event, listener, origin);
+            return;
+        }
+
+        final long start = System.nanoTime();
+
+        notifyListener(event, listener, origin);
+
+        monitor.record(event, listener, System.nanoTime() - start);
+    }
+
+    /**
+     * Calls the event method of an async listener on the async executor. Events are delivered to
+     * the listener one at a time, in the order they were triggered.
+     *
+     * @param event  The event to notify the listener of.
+     * @param entry  The registry entry of the async listener.
+     * @param origin The class of activity that triggered the event.
+     */
+    protected void notifyListenerAsync(final AppLifecycleEvent event,
+                                       final AppLifecycleListenerRegistry.Entry entry,
+                                       final Class<? extends Activity> origin) {
+        if (entry.serialExecutor == null) {
+            entry.serialExecutor = new SerialExecutor(asyncDispatcher);
+        }
+
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                // removed after the event was queued, but not by the end of the session
+                if (entry.unlinked) {
+                    return;
+                }
+
+                final AppLifecycleEventListener listener = entry.resolve();
+
+                // skip weak listeners that were garbage collected in the meantime
+                if (listener != null) {
+                    invokeListener(event, listener, origin);
+                }
+            }
+        };
+
+        try {
+            entry.serialExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // the manager was disposed: drop the event
+            if (!isDisposed()) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Calls the event method on all listeners of that event, after purging the garbage collected
+     * weak listeners. Does not allocate or lock, unless async listeners are notified or stale
+     * listeners are purged.
+     *
+     * @param event  The event to notify the listeners of.
+     * @param origin The class of activity that triggered the event.
+     */
+    protected void notifyListeners(AppLifecycleEvent event, Class<? extends Activity> origin) {
+        listeners.purgeStale();
+
+        /**
+         * Iterate the snapshot of this event, which is already sorted in dispatch order: listeners
+         * that are added or removed (by a listener or from another thread) replace the snapshot
+         * instead of modifying it, which prevents a concurrent modification exception and
+         * guarantees every listener is called at most once. Listeners that are added during the
+         * dispatch are not called; listeners that are removed are skipped.
+         */
+        final AppLifecycleListenerRegistry.Entry[] snapshot = listeners.getEntries(event);
+
+        for (int i = 0; i < snapshot.length; i++) {
+            final AppLifecycleListenerRegistry.Entry entry = snapshot[i];
+
+            if (entry.removed) {
+                continue;
+            }
+
+            if (entry.async) {
+                notifyListenerAsync(event, entry, origin);
+                continue;
+            }
+
+            final AppLifecycleEventListener listener = entry.resolve();
+
+            // weak listener that was garbage collected after the purge
+            if (listener != null) {
+                invokeListener(event, listener, origin);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,315 @@
+package com.cookingfox.android.app_lifecycle.impl.manager;
+
+import android.app.Activity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleJournal.ACCEPTED;
+import static com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleJournal.CALL_CONFIGURATION_CHANGE;
+import static com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleJournal.CALL_RELEASE;
+import static com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleJournal.IGNORED;
+import static com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleJournal.REJECTED;
+import static com.cookingfox.guava_preconditions.Preconditions.checkNotNull;
+
+/**
+ * App lifecycle manager implementation that derives the app lifecycle from the number of started
+ * and resumed activities, and a stack of created activity instances:
+ * <ul>
+ * <li>CREATE is triggered when the first activity is created</li>
+ * <li>START is triggered when the number of started activities goes from 0 to 1</li>
+ * <li>RESUME is triggered when the number of resumed activities goes from 0 to 1</li>
+ * <li>PAUSE is triggered when the number of resumed activities goes from 1 to 0</li>
+ * <li>STOP is triggered when the number of started activities goes from 1 to 0</li>
+ * <li>FINISH is triggered when the last created activity is destroyed</li>
+ * </ul>
+ * Unlike {@link CrossActivityAppLifecycleManager}, this does not depend on a strict order of
+ * activity callbacks or compare activity classes, so interleaved callbacks and multiple instances
+ * of the same activity class are supported. Every callback looks up the record of the activity
+ * from the top of the stack and changes at most one counter; only create and finish modify the
+ * activity stack. An activity that is recreated after a configuration change, or after it was
+ * released by the system, takes over the state of the destroyed activity, so the recreation is not
+ * notified.
+ * <p>
+ * The activity lifecycle methods must be called from the main thread.
+ */
+public class ActivityCountingAppLifecycleManager extends AbstractAppLifecycleManager {
+
+    /**
+     * Records of the created activity instances that have not finished yet, in order of creation.
+     */
+    protected final List<ActivityRecord> activityStack = new ArrayList<ActivityRecord>();
+
+    /**
+     * Records of the activities that were destroyed by a configuration change or released by the
+     * system, and are waiting for their recreated instance.
+     */
+    protected final List<ActivityRecord> recreatingActivities = new ArrayList<ActivityRecord>();
+
+    /**
+     * The number of started activities.
+     */
+    protected int startedCount;
+
+    /**
+     * The number of resumed activities.
+     */
+    protected int resumedCount;
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public void dispose() {
+        // clear listeners and reset state
+        super.dispose();
+
+        activityStack.clear();
+        recreatingActivities.clear();
+        startedCount = 0;
+        resumedCount = 0;
+    }
+
+    @Override
+    public void onCreate(Activity origin) {
+        checkNotNull(origin, "Origin activity can not be null");
+
+        // the same instance can only be created once
+        if (indexOf(origin) >= 0) {
+            journal(AppLifecycleEvent.CREATE.ordinal(), origin, REJECTED);
+            return;
+        }
+
+        // recreated after a configuration change: take over the state of the destroyed activity
+        for (int i = 0; i < recreatingActivities.size(); i++) {
+            final ActivityRecord record = recreatingActivities.get(i);
+
+            if (record.activityClass == origin.getClass()) {
+                recreatingActivities.remove(i);
+                record.activity = origin;
+                activityStack.add(record);
+                journal(AppLifecycleEvent.CREATE.ordinal(), origin, IGNORED);
+                return;
+            }
+        }
+
+        activityStack.add(new ActivityRecord(origin));
+        journal(AppLifecycleEvent.CREATE.ordinal(), origin, ACCEPTED);
+
+        if (activityStack.size() == 1 && recreatingActivities.isEmpty()) {
+            notifyListeners(AppLifecycleEvent.CREATE, origin.getClass());
+        }
+    }
+
+    @Override
+    public void onStart(Activity origin) {
+        final ActivityRecord record = recordOf(origin);
+
+        // unknown instance or already started: ignore
+        if (record == null || record.started) {
+            journal(AppLifecycleEvent.START.ordinal(), origin, record == null ? REJECTED : IGNORED);
+            return;
+        }
+
+        journal(AppLifecycleEvent.START.ordinal(), origin, ACCEPTED);
+
+        record.started = true;
+
+        // started again within the stop grace period: don't notify listeners
+        if (++startedCount == 1 && !cancelPendingStop()) {
+            notifyListeners(AppLifecycleEvent.START, origin.getClass());
+        }
+    }
+
+    @Override
+    public void onResume(Activity origin) {
+        final ActivityRecord record = recordOf(origin);
+
+        // unknown instance or already resumed: ignore
+        if (record == null || record.resumed) {
+            journal(AppLifecycleEvent.RESUME.ordinal(), origin, record == null ? REJECTED : IGNORED);
+            return;
+        }
+
+        journal(AppLifecycleEvent.RESUME.ordinal(), origin, ACCEPTED);
+
+        record.resumed = true;
+
+        if (++resumedCount == 1) {
+            notifyListeners(AppLifecycleEvent.RESUME, origin.getClass());
+        }
+    }
+
+    @Override
+    public void onPause(Activity origin) {
+        final ActivityRecord record = recordOf(origin);
+
+        // unknown instance or not resumed: ignore
+        if (record == null || !record.resumed) {
+            journal(AppLifecycleEvent.PAUSE.ordinal(), origin, record == null ? REJECTED : IGNORED);
+            return;
+        }
+
+        journal(AppLifecycleEvent.PAUSE.ordinal(), origin, ACCEPTED);
+
+        record.resumed = false;
+
+        if (--resumedCount == 0) {
+            notifyListeners(AppLifecycleEvent.PAUSE, origin.getClass());
+        }
+    }
+
+    @Override
+    public void onStop(Activity origin) {
+        final ActivityRecord record = recordOf(origin);
+
+        // unknown instance or not started: ignore
+        if (record == null || !record.started) {
+            journal(AppLifecycleEvent.STOP.ordinal(), origin, record == null ? REJECTED : IGNORED);
+            return;
+        }
+
+        journal(AppLifecycleEvent.STOP.ordinal(), origin, ACCEPTED);
+
+        record.started = false;
+
+        // notify listeners now, or after the grace period
+        if (--startedCount == 0 && !deferStop(origin.getClass())) {
+            notifyListeners(AppLifecycleEvent.STOP, origin.getClass());
+        }
+    }
+
+    @Override
+    public void onConfigurationChange(Activity origin) {
+        checkNotNull(origin, "Origin activity can not be null");
+
+        final int index = indexOf(origin);
+
+        // unknown instance: ignore
+        if (index < 0) {
+            journal(CALL_CONFIGURATION_CHANGE, origin, REJECTED);
+            return;
+        }
+
+        journal(CALL_CONFIGURATION_CHANGE, origin, ACCEPTED);
+
+        // keep the state for the recreated instance, but drop the destroyed instance
+        final ActivityRecord record = activityStack.remove(index);
+        record.activity = null;
+        recreatingActivities.add(record);
+    }
+
+    @Override
+    public void onRelease(Activity origin) {
+        checkNotNull(origin, "Origin activity can not be null");
+
+        final int index = indexOf(origin);
+
+        // unknown instance: ignore
+        if (index < 0) {
+            journal(CALL_RELEASE, origin, REJECTED);
+            return;
+        }
+
+        journal(CALL_RELEASE, origin, ACCEPTED);
+
+        // still part of the task: keep the state for the instance that is recreated from the saved
+        // state, e.g. when the user navigates back, but drop the destroyed instance
+        final ActivityRecord record = activityStack.remove(index);
+        record.activity = null;
+        recreatingActivities.add(record);
+    }
+
+    @Override
+    public void onFinish(Activity origin) {
+        checkNotNull(origin, "Origin activity can not be null");
+
+        final int index = indexOf(origin);
+
+        // unknown instance: ignore
+        if (index < 0) {
+            journal(AppLifecycleEvent.FINISH.ordinal(), origin, REJECTED);
+            return;
+        }
+
+        journal(AppLifecycleEvent.FINISH.ordinal(), origin, ACCEPTED);
+
+        activityStack.remove(index);
+
+        if (!activityStack.isEmpty() || !recreatingActivities.isEmpty()) {
+            return;
+        }
+
+        // finished within the stop grace period: notify the pending STOP event first
+        flushPendingStop();
+
+        notifyListeners(AppLifecycleEvent.FINISH, origin.getClass());
+
+        // end the session: remove all listeners, except persistent listeners
+        endSession();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    protected boolean hasActiveSession() {
+        return !activityStack.isEmpty() || !recreatingActivities.isEmpty();
+    }
+
+    /**
+     * Returns the index of the activity instance in the stack. Searches from the top of the stack,
+     * since callbacks are usually triggered by the last created activity.
+     *
+     * @param activity The activity instance.
+     * @return The index of the activity, or -1 if it is not in the stack.
+     */
+    protected int indexOf(Activity activity) {
+        for (int i = activityStack.size() - 1; i >= 0; i--) {
+            if (activityStack.get(i).activity == activity) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @param activity The activity instance.
+     * @return The record of the activity, or `null` if it is not in the stack.
+     */
+    protected ActivityRecord recordOf(Activity activity) {
+        final int index = indexOf(checkNotNull(activity, "Origin activity can not be null"));
+
+        return index < 0 ? null : activityStack.get(index);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASS: activity record
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * State of a created activity instance.
+     */
+    protected static final class ActivityRecord {
+
+        final Class<? extends Activity> activityClass;
+
+        /**
+         * The activity instance, or `null` while it is being recreated.
+         */
+        Activity activity;
+
+        boolean started;
+        boolean resumed;
+
+        ActivityRecord(Activity activity) {
+            this.activityClass = activity.getClass();
+            this.activity = activity;
+        }
+
+    }
+
+}
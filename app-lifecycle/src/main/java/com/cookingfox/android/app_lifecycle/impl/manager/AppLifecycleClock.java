@@ -0,0 +1,47 @@
+package com.cookingfox.android.app_lifecycle.impl.manager;
+
+/**
+ * Source of time and delayed execution for the app lifecycle manager, so time-based behavior can be
+ * tested on the JVM. Tasks must be run on the thread that calls the activity lifecycle methods of
+ * the manager, which is the main thread.
+ *
+ * @see HandlerAppLifecycleClock
+ */
+public interface AppLifecycleClock {
+
+    /**
+     * @return The current time in milliseconds, which does not need to relate to wall clock time.
+     */
+    long uptimeMillis();
+
+    /**
+     * @return The current time in milliseconds, including time spent in deep sleep, which does not
+     * need to relate to wall clock time.
+     */
+    long elapsedRealtime();
+
+    /**
+     * Runs the task after the delay.
+     *
+     * @param task        The task to run.
+     * @param delayMillis The delay in milliseconds.
+     */
+    void postDelayed(Runnable task, long delayMillis);
+
+    /**
+     * Runs the task once the thread has no pending messages, so it does not delay drawing frames or
+     * handling input.
+     *
+     * @param task The task to run.
+     */
+    void postWhenIdle(Runnable task);
+
+    /**
+     * Cancels the pending executions of the task, including the ones that wait for the thread to be
+     * idle.
+     *
+     * @param task The task to cancel.
+     */
+    void removeCallbacks(Runnable task);
+
+}
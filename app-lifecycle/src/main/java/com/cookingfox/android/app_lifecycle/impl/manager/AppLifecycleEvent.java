@@ -1,15 +1,78 @@
 package com.cookingfox.android.app_lifecycle.impl.manager;
 
+import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleEventListener;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppCreated;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppFinished;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppPaused;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppResumed;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppStarted;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppStopped;
+
 /**
  * Internal lifecycle event enum to control and validate the order of events.
  */
 public enum AppLifecycleEvent {
 
-    CREATE,
-    START,
-    RESUME,
-    PAUSE,
-    STOP,
-    FINISH
+    CREATE(OnAppCreated.class),
+    START(OnAppStarted.class),
+    RESUME(OnAppResumed.class),
+    PAUSE(OnAppPaused.class),
+    STOP(OnAppStopped.class),
+    FINISH(OnAppFinished.class);
+
+    /**
+     * The listener interface that receives this event.
+     */
+    private final Class<? extends AppLifecycleEventListener> listenerType;
+
+    AppLifecycleEvent(Class<? extends AppLifecycleEventListener> listenerType) {
+        this.listenerType = listenerType;
+    }
+
+    /**
+     * @return The listener interface that receives this event, e.g. {@link OnAppCreated}.
+     */
+    public Class<? extends AppLifecycleEventListener> getListenerType() {
+        return listenerType;
+    }
+
+    /**
+     * Returns the event that is received by the listener interface.
+     *
+     * @param listenerType The listener interface, e.g. {@link OnAppCreated}.
+     * @return The event.
+     * @throws IllegalArgumentException when the type is not an event listener interface.
+     */
+    public static AppLifecycleEvent forListenerType(Class<?> listenerType) {
+        for (AppLifecycleEvent event : values()) {
+            if (event.listenerType == listenerType) {
+                return event;
+            }
+        }
+
+        throw new IllegalArgumentException("Not an app lifecycle event listener interface: " +
+                listenerType);
+    }
+
+    /**
+     * Returns whether this event takes the app down (PAUSE, STOP, FINISH), as opposed to bringing
+     * it up (CREATE, START, RESUME). High priority listeners are notified first of events that
+     * bring the app up, and last of events that take it down.
+     *
+     * @return Whether this is a teardown event.
+     */
+    public boolean isTeardown() {
+        return compareTo(PAUSE) >= 0;
+    }
+
+    /**
+     * Returns whether the listener implements the listener interface for this event.
+     *
+     * @param listener The listener to check.
+     * @return Whether the listener should be notified of this event.
+     */
+    public boolean isListenedBy(AppLifecycleEventListener listener) {
+        return listenerType.isInstance(listener);
+    }
 
 }
@@ -0,0 +1,228 @@
+package com.cookingfox.android.app_lifecycle.impl.manager;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static com.cookingfox.guava_preconditions.Preconditions.checkArgument;
+
+/**
+ * Fixed-size journal of the calls to an app lifecycle manager, including the calls it rejected,
+ * for post-mortem diagnostics. Records are stored in a ring buffer of primitive arrays, so when
+ * the journal is full the oldest record is overwritten. Origin classes are interned to an integer
+ * id, so recording does not allocate, except when an origin class is recorded for the first time.
+ *
+ * @see AbstractAppLifecycleManager#setJournal(AppLifecycleJournal)
+ */
+public class AppLifecycleJournal {
+
+    /**
+     * Call code of {@link com.cookingfox.android.app_lifecycle.api.manager.AppLifecycleManager#onConfigurationChange}.
+     * The other calls are identified by the ordinal of their event.
+     */
+    public static final int CALL_CONFIGURATION_CHANGE = AppLifecycleEvent.values().length;
+
+    /**
+     * Call code of {@link com.cookingfox.android.app_lifecycle.api.manager.AppLifecycleManager#onRelease}.
+     */
+    public static final int CALL_RELEASE = CALL_CONFIGURATION_CHANGE + 1;
+
+    /**
+     * The call was accepted by the manager.
+     */
+    public static final byte ACCEPTED = 0;
+
+    /**
+     * The call was rejected by the manager, e.g. because the transition is not allowed.
+     */
+    public static final byte REJECTED = 1;
+
+    /**
+     * The call was valid, but intentionally not notified, e.g. for a recreated activity.
+     */
+    public static final byte IGNORED = 2;
+
+    /**
+     * Names of the outcomes, indexed by outcome.
+     */
+    protected static final String[] OUTCOME_NAMES = {"ACCEPTED", "REJECTED", "IGNORED"};
+
+    /**
+     * The call of each record: an event ordinal, {@link #CALL_CONFIGURATION_CHANGE} or
+     * {@link #CALL_RELEASE}. The record arrays are parallel, indexed by the record count modulo the
+     * capacity.
+     */
+    protected final byte[] calls;
+
+    /**
+     * The interned origin class id of each record.
+     */
+    protected final int[] originIds;
+
+    /**
+     * The {@link System#nanoTime()} of each record.
+     */
+    protected final long[] nanoTimes;
+
+    /**
+     * The outcome of each record, e.g. {@link #ACCEPTED}.
+     */
+    protected final byte[] outcomes;
+
+    /**
+     * Interned origin classes, indexed by origin id.
+     */
+    protected Class<?>[] origins = new Class<?>[8];
+
+    /**
+     * The number of interned origin classes.
+     */
+    protected int originCount;
+
+    /**
+     * The total number of recorded calls, including overwritten records.
+     */
+    protected long recordCount;
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTOR
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @param capacity The maximum number of records.
+     */
+    public AppLifecycleJournal(int capacity) {
+        checkArgument(capacity > 0, "Capacity must be positive");
+
+        calls = new byte[capacity];
+        originIds = new int[capacity];
+        nanoTimes = new long[capacity];
+        outcomes = new byte[capacity];
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Removes all records.
+     */
+    public synchronized void clear() {
+        recordCount = 0;
+    }
+
+    /**
+     * Returns the records in chronological order, one per line: the `System.nanoTime()` of the
+     * call, the call, the origin class and the outcome.
+     *
+     * @return The dumped records.
+     */
+    public String dump() {
+        final StringWriter writer = new StringWriter();
+
+        dump(new PrintWriter(writer));
+
+        return writer.toString();
+    }
+
+    /**
+     * Writes the records in chronological order, one per line: the `System.nanoTime()` of the
+     * call, the call, the origin class and the outcome.
+     *
+     * @param writer The writer to dump the records to.
+     */
+    public synchronized void dump(PrintWriter writer) {
+        final int size = size();
+        final long first = recordCount - size;
+
+        if (first > 0) {
+            writer.println("(" + first + " older records overwritten)");
+        }
+
+        for (long i = first; i < recordCount; i++) {
+            final int index = (int) (i % calls.length);
+
+            writer.println(nanoTimes[index] + " " + callName(calls[index]) + " " +
+                    origins[originIds[index]].getName() + " " + OUTCOME_NAMES[outcomes[index]]);
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * Records a call to the manager.
+     *
+     * @param event   The event of the call.
+     * @param origin  The class of activity that made the call.
+     * @param outcome The outcome, e.g. {@link #ACCEPTED}.
+     */
+    public void record(AppLifecycleEvent event, Class<?> origin, byte outcome) {
+        record(event.ordinal(), origin, outcome);
+    }
+
+    /**
+     * Records a call to the manager.
+     *
+     * @param call    The event ordinal of the call, or a call code, e.g. {@link #CALL_RELEASE}.
+     * @param origin  The class of activity that made the call.
+     * @param outcome The outcome, e.g. {@link #ACCEPTED}.
+     */
+    public synchronized void record(int call, Class<?> origin, byte outcome) {
+        final int index = (int) (recordCount++ % calls.length);
+
+        calls[index] = (byte) call;
+        originIds[index] = intern(origin);
+        nanoTimes[index] = System.nanoTime();
+        outcomes[index] = outcome;
+    }
+
+    /**
+     * @return The number of records, which is at most the capacity.
+     */
+    public synchronized int size() {
+        return (int) Math.min(recordCount, calls.length);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @param call The event ordinal of the call, or a call code, e.g. {@link #CALL_RELEASE}.
+     * @return The name of the call.
+     */
+    protected static String callName(int call) {
+        if (call == CALL_CONFIGURATION_CHANGE) {
+            return "CONFIGURATION_CHANGE";
+        } else if (call == CALL_RELEASE) {
+            return "RELEASE";
+        }
+
+        return AppLifecycleEvent.values()[call].name();
+    }
+
+    /**
+     * Returns the id of the origin class, interning it if it was not recorded before. Apps have a
+     * limited number of activity classes, so a linear search is sufficient.
+     *
+     * @param origin The origin class.
+     * @return The origin id.
+     */
+    protected int intern(Class<?> origin) {
+        for (int i = 0; i < originCount; i++) {
+            if (origins[i] == origin) {
+                return i;
+            }
+        }
+
+        if (originCount == origins.length) {
+            final Class<?>[] grown = new Class<?>[originCount * 2];
+            System.arraycopy(origins, 0, grown, 0, originCount);
+            origins = grown;
+        }
+
+        origins[originCount] = origin;
+
+        return originCount++;
+    }
+
+}
@@ -0,0 +1,898 @@
+package com.cookingfox.android.app_lifecycle.impl.manager;
+
+import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleEventListener;
+import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleListenable;
+import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleListenerFactory;
+import com.cookingfox.android.app_lifecycle.api.listener.AsyncAppLifecycleEventListener;
+import com.cookingfox.android.app_lifecycle.api.listener.PersistentAppLifecycleEventListener;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.cookingfox.guava_preconditions.Preconditions.checkNotNull;
+import static com.cookingfox.guava_preconditions.Preconditions.checkState;
+
+/**
+ * Ordered registry of app lifecycle event listeners. Listeners are indexed by identity, so looking
+ * up a listener takes constant time. The listeners of every event are also available as an
+ * immutable snapshot in dispatch order, which is kept sorted on modification:
+ * <ul>
+ * <li>Listeners with a higher priority are called first for events that bring the app up, and
+ * last for events that take it down (see {@link AppLifecycleEvent#isTeardown()}).</li>
+ * <li>Listeners with the same priority are called in reverse registration order: added first,
+ * called last.</li>
+ * </ul>
+ * <p>
+ * Persistent listeners ({@link PersistentAppLifecycleEventListener}) and session listeners are
+ * stored separately, so all session listeners can be dropped at once when the app finishes. Every
+ * time this happens, the session generation is incremented.
+ * <p>
+ * Listeners can also be added with a weak reference. The entries of weak listeners that were
+ * garbage collected are tracked by a reference queue and removed by {@link #purgeStale()}.
+ * <p>
+ * The registry is thread-safe: listeners can be added and removed from any thread. Modifications
+ * are serialized on the registry instance and publish new snapshots, which can be read without
+ * locking.
+ */
+public class AppLifecycleListenerRegistry {
+
+    /**
+     * Shared empty listener snapshot.
+     */
+    protected static final Entry[] NO_ENTRIES = new Entry[0];
+
+    /**
+     * All lifecycle events, in ordinal order.
+     */
+    protected static final AppLifecycleEvent[] EVENTS = AppLifecycleEvent.values();
+
+    /**
+     * Listeners that implement {@link PersistentAppLifecycleEventListener}.
+     */
+    protected final Tier persistent = new Tier();
+
+    /**
+     * Listeners that are removed when the session is cleared.
+     */
+    protected final Tier session = new Tier();
+
+    /**
+     * Receives the references of weak listeners that were garbage collected.
+     */
+    protected final ReferenceQueue<AppLifecycleEventListener> staleReferences =
+            new ReferenceQueue<AppLifecycleEventListener>();
+
+    /**
+     * Immutable snapshots of the listener entries per event, indexed by event ordinal and stored
+     * in dispatch order. A snapshot is replaced (never modified) when a listener of that event is
+     * added or removed.
+     */
+    protected final AtomicReferenceArray<Entry[]> snapshots =
+            new AtomicReferenceArray<Entry[]>(EVENTS.length);
+
+    /**
+     * Registration sequence number of the last added listener, which determines the dispatch order
+     * of listeners with the same priority.
+     */
+    protected long sequence;
+
+    /**
+     * Number of times the session listeners were cleared.
+     */
+    protected volatile int sessionGeneration;
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTOR
+    //----------------------------------------------------------------------------------------------
+
+    public AppLifecycleListenerRegistry() {
+        clearSnapshots();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Adds the listener, if it was not already added.
+     *
+     * @param listener The listener to add.
+     * @return Whether the listener was added.
+     */
+    public boolean add(AppLifecycleEventListener listener) {
+        return add(listener, AppLifecycleListenable.PRIORITY_DEFAULT, false);
+    }
+
+    /**
+     * Adds the listener, if it was not already added. Takes O(log n) comparisons to find the
+     * position of the listener in the snapshots of its events.
+     *
+     * @param listener The listener to add.
+     * @param priority The dispatch priority of the listener.
+     * @param weak     Whether the registry should only keep a weak reference to the listener.
+     * @return Whether the listener was added.
+     */
+    public synchronized boolean add(AppLifecycleEventListener listener, int priority, boolean weak) {
+        checkNotNull(listener, "Listener can not be null");
+
+        return add(listener, priority, weak, eventMaskOf(listener));
+    }
+
+    /**
+     * Adds the listener for the events of the mask, if it was not already added. This is used for
+     * listener factories, which are notified of the events of the listener they create.
+     *
+     * @param listener  The listener to add.
+     * @param priority  The dispatch priority of the listener.
+     * @param weak      Whether the registry should only keep a weak reference to the listener.
+     * @param eventMask Bitmask of the ordinals of the events to notify the listener of.
+     * @return Whether the listener was added.
+     * @see AppLifecycleListenerFactory
+     */
+    public synchronized boolean add(AppLifecycleEventListener listener, int priority, boolean weak,
+                                    int eventMask) {
+        if (contains(checkNotNull(listener, "Listener can not be null"))) {
+            return false;
+        }
+
+        final Entry entry = new Entry(listener, priority, eventMask, ++sequence,
+                weak ? staleReferences : null);
+
+        tierOf(listener).link(entry);
+        insertIntoSnapshots(entry);
+
+        return true;
+    }
+
+    /**
+     * Adds all listeners of the batch, or none if one of them was already added or occurs more than
+     * once in the batch. The snapshots are rebuilt once for the whole batch.
+     *
+     * @param batch    The listeners to add.
+     * @param priority The dispatch priority of the listeners.
+     * @return Whether the listeners were added.
+     */
+    public synchronized boolean addAll(Collection<? extends AppLifecycleEventListener> batch,
+                                       int priority) {
+        final Map<AppLifecycleEventListener, Boolean> unique =
+                new IdentityHashMap<AppLifecycleEventListener, Boolean>(batch.size());
+
+        for (AppLifecycleEventListener listener : batch) {
+            checkNotNull(listener, "Listener can not be null");
+
+            if (unique.put(listener, Boolean.TRUE) != null || contains(listener)) {
+                return false;
+            }
+        }
+
+        final Entry[] entries = new Entry[batch.size()];
+        int eventMask = 0;
+        int i = 0;
+
+        for (AppLifecycleEventListener listener : batch) {
+            final Entry entry = new Entry(listener, priority, eventMaskOf(listener), ++sequence,
+                    null);
+
+            tierOf(listener).link(entry);
+            eventMask |= entry.eventMask;
+            entries[i++] = entry;
+        }
+
+        mergeIntoSnapshots(entries, eventMask);
+
+        return true;
+    }
+
+    /**
+     * Removes all listeners.
+     */
+    public synchronized void clear() {
+        persistent.clear();
+        session.clear();
+        sessionGeneration++;
+        clearSnapshots();
+    }
+
+    /**
+     * Removes all session listeners, which are all listeners that do not implement
+     * {@link PersistentAppLifecycleEventListener}, and increments the session generation. Takes
+     * time proportional to the number of listeners.
+     */
+    public synchronized void clearSession() {
+        final boolean hadListeners = session.size > 0;
+
+        session.clear();
+        sessionGeneration++;
+
+        if (hadListeners) {
+            compactSnapshots(-1);
+        }
+    }
+
+    /**
+     * @param listener The listener to look up.
+     * @return Whether the listener is registered.
+     */
+    public synchronized boolean contains(AppLifecycleEventListener listener) {
+        return tierOf(listener).lookup(listener) != null;
+    }
+
+    /**
+     * Returns the listener entries of the event in dispatch order, without locking. The returned
+     * array must not be modified. Entries of listeners that are removed after the snapshot was
+     * taken are marked as removed.
+     *
+     * @param event The event to get the listener entries for.
+     * @return The current listener snapshot of the event.
+     */
+    public Entry[] getEntries(AppLifecycleEvent event) {
+        return snapshots.get(event.ordinal());
+    }
+
+    /**
+     * Returns the session generation, which is incremented every time the session listeners are
+     * cleared. A session listener is only registered during the generation in which it was added.
+     *
+     * @return The current session generation.
+     */
+    public int getSessionGeneration() {
+        return sessionGeneration;
+    }
+
+    /**
+     * @return Whether no listeners are registered.
+     */
+    public synchronized boolean isEmpty() {
+        return session.size == 0 && persistent.size == 0;
+    }
+
+    /**
+     * Removes the entries of weak listeners that were garbage collected. Does not lock or allocate
+     * when there are no stale entries, so it can be called before every dispatch.
+     *
+     * @return The number of stale entries that were removed.
+     */
+    public int purgeStale() {
+        Reference<? extends AppLifecycleEventListener> reference = staleReferences.poll();
+
+        if (reference == null) {
+            return 0;
+        }
+
+        synchronized (this) {
+            int count = 0;
+            int eventMask = 0;
+
+            do {
+                final Entry entry = ((WeakListenerReference) reference).entry;
+
+                // entry can already be removed, e.g. when the session was cleared
+                if (!entry.removed) {
+                    (entry.persistent ? persistent : session).unlink(entry);
+                    eventMask |= entry.eventMask;
+                    count++;
+                }
+            } while ((reference = staleReferences.poll()) != null);
+
+            compactSnapshots(eventMask);
+
+            return count;
+        }
+    }
+
+    /**
+     * Removes all listeners of the batch, or none if one of them was not added. The snapshots are
+     * rebuilt once for the whole batch.
+     *
+     * @param batch The listeners to remove.
+     * @return Whether the listeners were removed.
+     */
+    public synchronized boolean removeAll(Collection<? extends AppLifecycleEventListener> batch) {
+        final Entry[] entries = new Entry[batch.size()];
+        int i = 0;
+
+        for (AppLifecycleEventListener listener : batch) {
+            final Tier tier = tierOf(checkNotNull(listener, "Listener can not be null"));
+            final Entry entry = tier.lookup(listener);
+
+            if (entry == null) {
+                return false;
+            }
+
+            entries[i++] = entry;
+        }
+
+        int eventMask = 0;
+
+        for (Entry entry : entries) {
+            // listener occurs more than once in the batch
+            if (entry.removed) {
+                continue;
+            }
+
+            (entry.persistent ? persistent : session).unlink(entry);
+            eventMask |= entry.eventMask;
+        }
+
+        compactSnapshots(eventMask);
+
+        return true;
+    }
+
+    /**
+     * Removes the listener, if it was added.
+     *
+     * @param listener The listener to remove.
+     * @return Whether the listener was removed.
+     */
+    public synchronized boolean remove(AppLifecycleEventListener listener) {
+        final Tier tier = tierOf(checkNotNull(listener, "Listener can not be null"));
+        final Entry entry = tier.lookup(listener);
+
+        if (entry == null) {
+            return false;
+        }
+
+        tier.unlink(entry);
+        removeFromSnapshots(entry);
+
+        return true;
+    }
+
+    /**
+     * @return The number of registered listeners, including weak listeners that were garbage
+     * collected but not yet purged.
+     */
+    public synchronized int size() {
+        return session.size + persistent.size;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Replaces the snapshots of all events with an empty snapshot.
+     */
+    protected void clearSnapshots() {
+        for (int i = 0; i < snapshots.length(); i++) {
+            snapshots.set(i, NO_ENTRIES);
+        }
+    }
+
+    /**
+     * Removes the entries that are marked as removed from the snapshots of the events in the event
+     * mask.
+     *
+     * @param eventMask Bitmask of event ordinals, e.g. the events a listener implements.
+     */
+    protected void compactSnapshots(int eventMask) {
+        for (AppLifecycleEvent event : EVENTS) {
+            if ((eventMask & (1 << event.ordinal())) == 0) {
+                continue;
+            }
+
+            final Entry[] snapshot = snapshots.get(event.ordinal());
+
+            int count = 0;
+
+            for (Entry entry : snapshot) {
+                if (!entry.removed) {
+                    count++;
+                }
+            }
+
+            final Entry[] compacted = count == 0 ? NO_ENTRIES : new Entry[count];
+
+            count = 0;
+
+            for (Entry entry : snapshot) {
+                if (!entry.removed) {
+                    compacted[count++] = entry;
+                }
+            }
+
+            snapshots.set(event.ordinal(), compacted);
+        }
+    }
+
+    /**
+     * Inserts the entry into the snapshots of its events, at the position that is found by binary
+     * search.
+     *
+     * @param entry The entry to insert.
+     */
+    protected void insertIntoSnapshots(Entry entry) {
+        for (AppLifecycleEvent event : EVENTS) {
+            if ((entry.eventMask & (1 << event.ordinal())) == 0) {
+                continue;
+            }
+
+            final Entry[] snapshot = snapshots.get(event.ordinal());
+            final int index = search(event, snapshot, entry);
+            final Entry[] inserted = new Entry[snapshot.length + 1];
+
+            System.arraycopy(snapshot, 0, inserted, 0, index);
+            inserted[index] = entry;
+            System.arraycopy(snapshot, index, inserted, index + 1, snapshot.length - index);
+
+            snapshots.set(event.ordinal(), inserted);
+        }
+    }
+
+    /**
+     * Merges the entries into the snapshots of the events in the event mask. The entries are sorted
+     * once per event and merged with the current snapshot in a single pass.
+     *
+     * @param entries   The entries to merge.
+     * @param eventMask Bitmask of the event ordinals of the entries.
+     */
+    protected void mergeIntoSnapshots(Entry[] entries, int eventMask) {
+        for (final AppLifecycleEvent event : EVENTS) {
+            final int eventBit = 1 << event.ordinal();
+
+            if ((eventMask & eventBit) == 0) {
+                continue;
+            }
+
+            int count = 0;
+
+            for (Entry entry : entries) {
+                if ((entry.eventMask & eventBit) != 0) {
+                    count++;
+                }
+            }
+
+            final Entry[] added = new Entry[count];
+
+            count = 0;
+
+            for (Entry entry : entries) {
+                if ((entry.eventMask & eventBit) != 0) {
+                    added[count++] = entry;
+                }
+            }
+
+            Arrays.sort(added, new Comparator<Entry>() {
+                @Override
+                public int compare(Entry a, Entry b) {
+                    return a == b ? 0 : precedes(event, a, b) ? -1 : 1;
+                }
+            });
+
+            final Entry[] snapshot = snapshots.get(event.ordinal());
+            final Entry[] merged = new Entry[snapshot.length + added.length];
+
+            int s = 0;
+            int a = 0;
+
+            for (int m = 0; m < merged.length; m++) {
+                if (a == added.length ||
+                        (s < snapshot.length && precedes(event, snapshot[s], added[a]))) {
+                    merged[m] = snapshot[s++];
+                } else {
+                    merged[m] = added[a++];
+                }
+            }
+
+            snapshots.set(event.ordinal(), merged);
+        }
+    }
+
+    /**
+     * Removes the entry from the snapshots of its events, at the position that is found by binary
+     * search.
+     *
+     * @param entry The entry to remove.
+     */
+    protected void removeFromSnapshots(Entry entry) {
+        for (AppLifecycleEvent event : EVENTS) {
+            if ((entry.eventMask & (1 << event.ordinal())) == 0) {
+                continue;
+            }
+
+            final Entry[] snapshot = snapshots.get(event.ordinal());
+            final int index = search(event, snapshot, entry);
+
+            if (snapshot.length == 1) {
+                snapshots.set(event.ordinal(), NO_ENTRIES);
+                continue;
+            }
+
+            final Entry[] removed = new Entry[snapshot.length - 1];
+
+            System.arraycopy(snapshot, 0, removed, 0, index);
+            System.arraycopy(snapshot, index + 1, removed, index, removed.length - index);
+
+            snapshots.set(event.ordinal(), removed);
+        }
+    }
+
+    /**
+     * Returns the position of the entry in the snapshot of the event: the index of the entry if it
+     * is part of the snapshot, otherwise the index at which it should be inserted.
+     *
+     * @param event    The event of the snapshot.
+     * @param snapshot The snapshot, sorted in dispatch order.
+     * @param entry    The entry to search for.
+     * @return The position of the entry.
+     */
+    protected static int search(AppLifecycleEvent event, Entry[] snapshot, Entry entry) {
+        int low = 0;
+        int high = snapshot.length;
+
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+
+            if (snapshot[middle] == entry) {
+                return middle;
+            }
+
+            if (precedes(event, snapshot[middle], entry)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * @param event The event that is dispatched.
+     * @param a     An entry.
+     * @param b     Another entry.
+     * @return Whether the listener of entry `a` is notified of the event before that of entry `b`.
+     */
+    protected static boolean precedes(AppLifecycleEvent event, Entry a, Entry b) {
+        if (a.priority != b.priority) {
+            return (a.priority > b.priority) != event.isTeardown();
+        }
+
+        // same priority: added first, called last
+        return a.sequence > b.sequence;
+    }
+
+    /**
+     * @param listener The listener.
+     * @return Bitmask of the ordinals of the events the listener implements.
+     */
+    protected static int eventMaskOf(AppLifecycleEventListener listener) {
+        int eventMask = 0;
+
+        for (AppLifecycleEvent event : EVENTS) {
+            if (event.isListenedBy(listener)) {
+                eventMask |= 1 << event.ordinal();
+            }
+        }
+
+        return eventMask;
+    }
+
+    /**
+     * @param listener The listener.
+     * @return The tier the listener is stored in.
+     */
+    protected Tier tierOf(AppLifecycleEventListener listener) {
+        return listener instanceof PersistentAppLifecycleEventListener ? persistent : session;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASS: tier
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Listener entries in registration order, indexed by identity.
+     */
+    protected static final class Tier {
+
+        /**
+         * Identity index of the strongly referenced listeners, mapping a listener to its entry in
+         * the ordered storage.
+         */
+        final Map<AppLifecycleEventListener, Entry> index =
+                new IdentityHashMap<AppLifecycleEventListener, Entry>();
+
+        /**
+         * Index of the weakly referenced listeners by identity hash code. Entries with the same
+         * hash code are chained.
+         */
+        final Map<Integer, Entry> weakIndex = new HashMap<Integer, Entry>();
+
+        /**
+         * The first added listener entry.
+         */
+        Entry head;
+
+        /**
+         * The last added listener entry.
+         */
+        Entry tail;
+
+        /**
+         * The number of entries.
+         */
+        int size;
+
+        /**
+         * Marks all entries as removed and drops them.
+         */
+        void clear() {
+            for (Entry entry = head; entry != null; entry = entry.next) {
+                entry.removed = true;
+            }
+
+            index.clear();
+            weakIndex.clear();
+            head = null;
+            tail = null;
+            size = 0;
+        }
+
+        /**
+         * Appends the entry to the ordered storage and indexes it.
+         */
+        void link(Entry entry) {
+            entry.previous = tail;
+
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+
+            tail = entry;
+            size++;
+
+            if (entry.reference == null) {
+                index.put(entry.listener, entry);
+            } else {
+                entry.sameHash = weakIndex.put(entry.identityHash, entry);
+            }
+        }
+
+        /**
+         * @param listener The listener to look up.
+         * @return The entry of the listener, or `null` if not found.
+         */
+        Entry lookup(AppLifecycleEventListener listener) {
+            Entry entry = index.get(listener);
+
+            if (entry != null || weakIndex.isEmpty()) {
+                return entry;
+            }
+
+            entry = weakIndex.get(System.identityHashCode(listener));
+
+            while (entry != null && entry.get() != listener) {
+                entry = entry.sameHash;
+            }
+
+            return entry;
+        }
+
+        /**
+         * Removes the entry from the index and the ordered storage, and marks it as removed and
+         * unlinked.
+         */
+        void unlink(Entry entry) {
+            entry.removed = true;
+            entry.unlinked = true;
+            size--;
+
+            if (entry.reference == null) {
+                index.remove(entry.listener);
+            } else {
+                unlinkWeak(entry);
+            }
+
+            if (entry.previous == null) {
+                head = entry.next;
+            } else {
+                entry.previous.next = entry.next;
+            }
+
+            if (entry.next == null) {
+                tail = entry.previous;
+            } else {
+                entry.next.previous = entry.previous;
+            }
+        }
+
+        /**
+         * Removes the entry from the chain of weak entries with the same identity hash code.
+         */
+        void unlinkWeak(Entry entry) {
+            final Entry first = weakIndex.get(entry.identityHash);
+
+            if (first == entry) {
+                if (entry.sameHash == null) {
+                    weakIndex.remove(entry.identityHash);
+                } else {
+                    weakIndex.put(entry.identityHash, entry.sameHash);
+                }
+
+                return;
+            }
+
+            for (Entry current = first; current != null; current = current.sameHash) {
+                if (current.sameHash == entry) {
+                    current.sameHash = entry.sameHash;
+                    return;
+                }
+            }
+        }
+
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASS: entry
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Node of the ordered listener storage, which is also the element type of the snapshots.
+     */
+    public static final class Entry {
+
+        /**
+         * The listener, or `null` for a weak listener.
+         */
+        final AppLifecycleEventListener listener;
+
+        /**
+         * The weak reference to the listener, or `null` for a strong listener.
+         */
+        final WeakListenerReference reference;
+
+        /**
+         * The identity hash code of the listener.
+         */
+        final Integer identityHash;
+
+        /**
+         * Bitmask of the ordinals of the events the listener implements.
+         */
+        final int eventMask;
+
+        /**
+         * The dispatch priority of the listener.
+         */
+        final int priority;
+
+        /**
+         * The registration sequence number, which orders listeners with the same priority.
+         */
+        final long sequence;
+
+        /**
+         * Whether the listener is stored in the persistent tier, instead of the session tier.
+         */
+        final boolean persistent;
+
+        /**
+         * The previous entry of the tier in registration order, or `null` for the head.
+         */
+        Entry previous;
+
+        /**
+         * The next entry of the tier in registration order, or `null` for the tail.
+         */
+        Entry next;
+
+        /**
+         * The next weak entry of the tier with the same identity hash code, or `null` if none.
+         */
+        Entry sameHash;
+
+        /**
+         * Whether the listener is notified on a background executor.
+         *
+         * @see AsyncAppLifecycleEventListener
+         */
+        final boolean async;
+
+        /**
+         * Serializes the notifications of an async listener, created on its first notification.
+         */
+        volatile Executor serialExecutor;
+
+        /**
+         * Whether the listener was removed, so it should be skipped by a running dispatch.
+         */
+        volatile boolean removed;
+
+        /**
+         * Whether the listener was removed on its own, instead of by clearing its tier at the end
+         * of the session, so the async notifications that are still queued are dropped.
+         */
+        volatile boolean unlinked;
+
+        /**
+         * The listener created by the factory, or `null` if this is not a factory or the listener
+         * was not created yet.
+         */
+        volatile AppLifecycleEventListener created;
+
+        Entry(AppLifecycleEventListener listener, int priority, int eventMask, long sequence,
+              ReferenceQueue<AppLifecycleEventListener> queue) {
+            this.listener = queue == null ? listener : null;
+            this.reference = queue == null ? null : new WeakListenerReference(listener, queue, this);
+            this.identityHash = queue == null ? null : System.identityHashCode(listener);
+            this.priority = priority;
+            this.sequence = sequence;
+            this.persistent = listener instanceof PersistentAppLifecycleEventListener;
+            this.async = listener instanceof AsyncAppLifecycleEventListener;
+            this.eventMask = eventMask;
+        }
+
+        /**
+         * @return The listener, or `null` if it was weakly referenced and garbage collected.
+         */
+        public AppLifecycleEventListener get() {
+            return reference == null ? listener : reference.get();
+        }
+
+        /**
+         * Returns the listener to notify: the listener, or for a listener factory the listener it
+         * creates on the first call. Entries are resolved by a single thread at a time: the main
+         * thread, or the serial executor of an async entry.
+         *
+         * @return The listener to notify, or `null` if it was weakly referenced and garbage
+         * collected.
+         * @throws IllegalStateException when a created listener does not implement the listener
+         *                               interfaces of the events of the entry.
+         */
+        public AppLifecycleEventListener resolve() {
+            final AppLifecycleEventListener current = get();
+
+            if (!(current instanceof AppLifecycleListenerFactory)) {
+                return current;
+            }
+
+            AppLifecycleEventListener result = created;
+
+            if (result == null) {
+                result = checkNotNull(((AppLifecycleListenerFactory) current).create(),
+                        "Listener factory created null: " + current);
+
+                checkState((eventMaskOf(result) & eventMask) == eventMask, "Listener created by " +
+                        "factory does not implement the listener interfaces of its events: " + result);
+
+                created = result;
+            }
+
+            return result;
+        }
+
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASS: weak listener reference
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Weak reference to a listener, which refers back to its entry, so the entry can be removed
+     * when the reference is enqueued.
+     */
+    protected static final class WeakListenerReference extends WeakReference<AppLifecycleEventListener> {
+
+        final Entry entry;
+
+        WeakListenerReference(AppLifecycleEventListener listener,
+                              ReferenceQueue<AppLifecycleEventListener> queue, Entry entry) {
+            super(listener, queue);
+            this.entry = entry;
+        }
+
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.cookingfox.android.app_lifecycle.impl.manager;
+
+import static com.cookingfox.guava_preconditions.Preconditions.checkNotNull;
+
+/**
+ * Immutable table of allowed lifecycle event transitions, used by the manager to validate the
+ * order of events. For every event, the allowed last events are stored as a bitmask indexed by
+ * event ordinal, so validating a transition is a single bit test. A `null` last event (no event
+ * triggered yet) is represented by its own bit.
+ * <p>
+ * Use {@link #allow(AppLifecycleEvent, AppLifecycleEvent)} and
+ * {@link #disallow(AppLifecycleEvent, AppLifecycleEvent)} to derive a custom policy, e.g. for apps
+ * with translucent or dialog-themed activities.
+ */
+public class AppLifecycleTransitionPolicy {
+
+    /**
+     * Bit index that represents no last event.
+     */
+    protected static final int NO_EVENT = AppLifecycleEvent.values().length;
+
+    /**
+     * The default policy:
+     * <ul>
+     * <li>CREATE can be called initially</li>
+     * <li>START can be called after CREATE, PAUSE, or STOP</li>
+     * <li>RESUME can be called after START or PAUSE</li>
+     * <li>PAUSE can be called after RESUME</li>
+     * <li>STOP can be called after PAUSE</li>
+     * <li>FINISH can be called after STOP</li>
+     * </ul>
+     */
+    public static final AppLifecycleTransitionPolicy DEFAULT = new AppLifecycleTransitionPolicy()
+            .allow(AppLifecycleEvent.CREATE, null)
+            .allow(AppLifecycleEvent.START, AppLifecycleEvent.CREATE)
+            .allow(AppLifecycleEvent.START, AppLifecycleEvent.PAUSE)
+            .allow(AppLifecycleEvent.START, AppLifecycleEvent.STOP)
+            .allow(AppLifecycleEvent.RESUME, AppLifecycleEvent.START)
+            .allow(AppLifecycleEvent.RESUME, AppLifecycleEvent.PAUSE)
+            .allow(AppLifecycleEvent.PAUSE, AppLifecycleEvent.RESUME)
+            .allow(AppLifecycleEvent.STOP, AppLifecycleEvent.PAUSE)
+            .allow(AppLifecycleEvent.FINISH, AppLifecycleEvent.STOP);
+
+    /**
+     * Bitmask of allowed last events, indexed by event ordinal.
+     */
+    protected final int[] allowedLastEvents;
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a policy that does not allow any transition.
+     */
+    public AppLifecycleTransitionPolicy() {
+        this(new int[AppLifecycleEvent.values().length]);
+    }
+
+    protected AppLifecycleTransitionPolicy(int[] allowedLastEvents) {
+        this.allowedLastEvents = allowedLastEvents;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Returns a copy of this policy which allows the event to be triggered after the last event.
+     *
+     * @param event     The event to allow.
+     * @param lastEvent The last event after which the event is allowed, or `null` for no last
+     *                  event.
+     * @return A new policy instance.
+     */
+    public AppLifecycleTransitionPolicy allow(AppLifecycleEvent event, AppLifecycleEvent lastEvent) {
+        final int[] copy = allowedLastEvents.clone();
+        copy[checkNotNull(event, "Event can not be null").ordinal()] |= bit(lastEvent);
+
+        return new AppLifecycleTransitionPolicy(copy);
+    }
+
+    /**
+     * Returns a copy of this policy which does not allow the event to be triggered after the last
+     * event.
+     *
+     * @param event     The event to disallow.
+     * @param lastEvent The last event after which the event is not allowed, or `null` for no last
+     *                  event.
+     * @return A new policy instance.
+     */
+    public AppLifecycleTransitionPolicy disallow(AppLifecycleEvent event, AppLifecycleEvent lastEvent) {
+        final int[] copy = allowedLastEvents.clone();
+        copy[checkNotNull(event, "Event can not be null").ordinal()] &= ~bit(lastEvent);
+
+        return new AppLifecycleTransitionPolicy(copy);
+    }
+
+    /**
+     * Returns whether the event is allowed to be triggered after the last event.
+     *
+     * @param event     The event that is triggered.
+     * @param lastEvent The last event that was triggered, or `null` for no last event.
+     * @return Whether this transition is allowed.
+     */
+    public boolean isAllowed(AppLifecycleEvent event, AppLifecycleEvent lastEvent) {
+        return (allowedLastEvents[event.ordinal()] & bit(lastEvent)) != 0;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @param event The event, or `null` for no event.
+     * @return The bit that represents the event.
+     */
+    protected static int bit(AppLifecycleEvent event) {
+        return 1 << (event == null ? NO_EVENT : event.ordinal());
+    }
+
+}
@@ -2,121 +2,122 @@ package com.cookingfox.android.app_lifecycle.impl.manager;
 
 import android.app.Activity;
 
-import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleEventListener;
-import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleListenable;
-import com.cookingfox.android.app_lifecycle.api.listener.OnAppCreated;
-import com.cookingfox.android.app_lifecycle.api.listener.OnAppFinished;
-import com.cookingfox.android.app_lifecycle.api.listener.OnAppPaused;
-import com.cookingfox.android.app_lifecycle.api.listener.OnAppResumed;
-import com.cookingfox.android.app_lifecycle.api.listener.OnAppStarted;
-import com.cookingfox.android.app_lifecycle.api.listener.OnAppStopped;
-import com.cookingfox.android.app_lifecycle.api.listener.PersistentAppLifecycleEventListener;
-import com.cookingfox.android.app_lifecycle.api.manager.AppLifecycleManager;
-
-import java.util.Arrays;
-import java.util.LinkedList;
-import java.util.List;
-
+import static com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleJournal.ACCEPTED;
+import static com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleJournal.CALL_CONFIGURATION_CHANGE;
+import static com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleJournal.CALL_RELEASE;
+import static com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleJournal.IGNORED;
+import static com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleJournal.REJECTED;
 import static com.cookingfox.guava_preconditions.Preconditions.checkNotNull;
 
 /**
  * App lifecycle manager implementation that supports tracking the Android lifecycle across
  * activities.
  */
-public class CrossActivityAppLifecycleManager implements AppLifecycleManager {
+public class CrossActivityAppLifecycleManager extends AbstractAppLifecycleManager {
 
     /**
      * The class of activity that last triggered a lifecycle event.
      */
-    protected Class<? extends Activity> currentOrigin;
+    protected volatile Class<? extends Activity> currentOrigin;
 
     /**
      * The last lifecycle event that was triggered, to control and validate subsequent events.
      */
-    protected AppLifecycleEvent lastEvent;
+    protected volatile AppLifecycleEvent lastEvent;
+
+    /**
+     * The last event of the current origin that is not notified when the activity is recreated
+     * after a configuration change, or `null` if no activity is being recreated.
+     */
+    protected volatile AppLifecycleEvent recreationEvent;
 
     /**
-     * A set of app lifecycle event listeners.
+     * Validates the order of lifecycle events.
      */
-    protected final List<AppLifecycleEventListener> listeners = new LinkedList<AppLifecycleEventListener>();
+    protected volatile AppLifecycleTransitionPolicy transitionPolicy;
 
     //----------------------------------------------------------------------------------------------
-    // PUBLIC METHODS
+    // CONSTRUCTORS
     //----------------------------------------------------------------------------------------------
 
-    @Override
-    public AppLifecycleListenable addListener(AppLifecycleEventListener listener) {
-        if (listeners.contains(checkNotNull(listener, "Listener can not be null"))) {
-            throw new IllegalStateException("Listener was already added: " + listener);
-        }
-
-        listeners.add(listener);
-
-        return this;
+    public CrossActivityAppLifecycleManager() {
+        this(AppLifecycleTransitionPolicy.DEFAULT);
     }
 
-    @Override
-    public AppLifecycleListenable removeListener(AppLifecycleEventListener listener) {
-        if (!listeners.contains(checkNotNull(listener, "Listener can not be null"))) {
-            throw new IllegalStateException("Listener not found: " + listener);
-        }
+    public CrossActivityAppLifecycleManager(AppLifecycleTransitionPolicy transitionPolicy) {
+        setTransitionPolicy(transitionPolicy);
+    }
 
-        // do not remove persistent listeners
-        if (!(listener instanceof PersistentAppLifecycleEventListener)) {
-            listeners.remove(listener);
-        }
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
 
-        return this;
+    /**
+     * Sets the policy that validates the order of lifecycle events.
+     *
+     * @param transitionPolicy The transition policy.
+     * @see AppLifecycleTransitionPolicy#DEFAULT
+     */
+    public void setTransitionPolicy(AppLifecycleTransitionPolicy transitionPolicy) {
+        this.transitionPolicy = checkNotNull(transitionPolicy, "Transition policy can not be null");
     }
 
     @Override
     public void dispose() {
         // clear listeners and reset state
-        listeners.clear();
+        super.dispose();
+
         currentOrigin = null;
         lastEvent = null;
+        recreationEvent = null;
     }
 
     @Override
     public void onCreate(Activity origin) {
+        // recreated after a configuration change: only update origin
+        if (isRecreation(origin, AppLifecycleEvent.CREATE)) {
+            currentOrigin = origin.getClass();
+            return;
+        }
+
         // initially the last event is null
-        if (!isValid(origin, new AppLifecycleEvent[]{null})) {
+        if (!isValid(origin, AppLifecycleEvent.CREATE)) {
             return;
         }
 
+        journal(AppLifecycleEvent.CREATE.ordinal(), origin, ACCEPTED);
+
         currentOrigin = origin.getClass();
 
-        notifyListeners(new ListenerNotifier() {
-            @Override
-            public void call(AppLifecycleEventListener listener) {
-                if (listener instanceof OnAppCreated) {
-                    ((OnAppCreated) listener).onAppCreated(currentOrigin);
-                }
-            }
-        });
+        notifyListeners(AppLifecycleEvent.CREATE);
 
         lastEvent = AppLifecycleEvent.CREATE;
     }
 
     @Override
     public void onStart(Activity origin) {
-        // START can be called after CREATE, PAUSE, or STOP
-        if (!isValid(origin, AppLifecycleEvent.CREATE, AppLifecycleEvent.PAUSE, AppLifecycleEvent.STOP)) {
+        // recreated after a configuration change: ignore
+        if (isRecreation(origin, AppLifecycleEvent.START)) {
+            return;
+        }
+
+        // by default START can be called after CREATE, PAUSE, or STOP
+        if (!isValid(origin, AppLifecycleEvent.START)) {
             return;
         }
 
+        journal(AppLifecycleEvent.START.ordinal(), origin, ACCEPTED);
+
         final Class<? extends Activity> originClass = origin.getClass();
 
+        // started again within the stop grace period: don't notify listeners
+        final boolean stopCancelled = cancelPendingStop();
+
         if (originClass.equals(currentOrigin)) {
             // after create or stop: notify listeners
-            notifyListeners(new ListenerNotifier() {
-                @Override
-                public void call(AppLifecycleEventListener listener) {
-                    if (listener instanceof OnAppStarted) {
-                        ((OnAppStarted) listener).onAppStarted(currentOrigin);
-                    }
-                }
-            });
+            if (!stopCancelled) {
+                notifyListeners(AppLifecycleEvent.START);
+            }
         } else if (currentOrigin != null) {
             // after pause: don't notify listeners, only change current origin
             currentOrigin = originClass;
@@ -127,155 +128,211 @@ public class CrossActivityAppLifecycleManager implements AppLifecycleManager {
 
     @Override
     public void onResume(Activity origin) {
-        // RESUME can be called after START or PAUSE
-        if (!isValid(origin, AppLifecycleEvent.START, AppLifecycleEvent.PAUSE)) {
+        // recreated after a configuration change: ignore
+        if (isRecreation(origin, AppLifecycleEvent.RESUME)) {
             return;
         }
 
-        if (origin.getClass().equals(currentOrigin)) {
-            notifyListeners(new ListenerNotifier() {
-                @Override
-                public void call(AppLifecycleEventListener listener) {
-                    if (listener instanceof OnAppResumed) {
-                        ((OnAppResumed) listener).onAppResumed(currentOrigin);
-                    }
-                }
-            });
-
-            lastEvent = AppLifecycleEvent.RESUME;
+        // by default RESUME can be called after START or PAUSE
+        if (!isValid(origin, AppLifecycleEvent.RESUME)) {
+            return;
         }
+
+        // different origin: ignore
+        if (!origin.getClass().equals(currentOrigin)) {
+            journal(AppLifecycleEvent.RESUME.ordinal(), origin, IGNORED);
+            return;
+        }
+
+        journal(AppLifecycleEvent.RESUME.ordinal(), origin, ACCEPTED);
+
+        notifyListeners(AppLifecycleEvent.RESUME);
+
+        lastEvent = AppLifecycleEvent.RESUME;
     }
 
     @Override
     public void onPause(Activity origin) {
-        // PAUSE can be called after RESUME
-        if (!isValid(origin, AppLifecycleEvent.RESUME)) {
+        // a recreated activity that is paused or stopped is no longer recreating
+        recreationEvent = null;
+
+        // by default PAUSE can be called after RESUME
+        if (!isValid(origin, AppLifecycleEvent.PAUSE)) {
             return;
         }
 
-        if (origin.getClass().equals(currentOrigin)) {
-            notifyListeners(new ListenerNotifier() {
-                @Override
-                public void call(AppLifecycleEventListener listener) {
-                    if (listener instanceof OnAppPaused) {
-                        ((OnAppPaused) listener).onAppPaused(currentOrigin);
-                    }
-                }
-            });
-
-            lastEvent = AppLifecycleEvent.PAUSE;
+        // different origin: ignore
+        if (!origin.getClass().equals(currentOrigin)) {
+            journal(AppLifecycleEvent.PAUSE.ordinal(), origin, IGNORED);
+            return;
         }
+
+        journal(AppLifecycleEvent.PAUSE.ordinal(), origin, ACCEPTED);
+
+        notifyListeners(AppLifecycleEvent.PAUSE);
+
+        lastEvent = AppLifecycleEvent.PAUSE;
     }
 
     @Override
     public void onStop(Activity origin) {
-        // STOP can be called after PAUSE
-        if (!isValid(origin, AppLifecycleEvent.PAUSE)) {
+        // a recreated activity that is paused or stopped is no longer recreating
+        recreationEvent = null;
+
+        // by default STOP can be called after PAUSE
+        if (!isValid(origin, AppLifecycleEvent.STOP)) {
+            return;
+        }
+
+        // different origin: ignore
+        if (!origin.getClass().equals(currentOrigin)) {
+            journal(AppLifecycleEvent.STOP.ordinal(), origin, IGNORED);
+            return;
+        }
+
+        journal(AppLifecycleEvent.STOP.ordinal(), origin, ACCEPTED);
+
+        // notify listeners now, or after the grace period
+        if (!deferStop(currentOrigin)) {
+            notifyListeners(AppLifecycleEvent.STOP);
+        }
+
+        lastEvent = AppLifecycleEvent.STOP;
+    }
+
+    @Override
+    public void onConfigurationChange(Activity origin) {
+        checkNotNull(origin, "Origin activity can not be null");
+
+        // different origin: ignore
+        if (!origin.getClass().equals(currentOrigin) || lastEvent == null) {
+            journal(CALL_CONFIGURATION_CHANGE, origin, IGNORED);
             return;
         }
 
-        if (origin.getClass().equals(currentOrigin)) {
-            notifyListeners(new ListenerNotifier() {
-                @Override
-                public void call(AppLifecycleEventListener listener) {
-                    if (listener instanceof OnAppStopped) {
-                        ((OnAppStopped) listener).onAppStopped(currentOrigin);
-                    }
-                }
-            });
-
-            lastEvent = AppLifecycleEvent.STOP;
+        journal(CALL_CONFIGURATION_CHANGE, origin, ACCEPTED);
+
+        // the recreated activity returns to the state of the destroyed activity: after PAUSE it
+        // is started, after STOP it is only created
+        switch (lastEvent) {
+            case PAUSE:
+                recreationEvent = AppLifecycleEvent.START;
+                break;
+            case STOP:
+                recreationEvent = AppLifecycleEvent.CREATE;
+                break;
+            default:
+                recreationEvent = lastEvent;
+                break;
         }
     }
 
+    @Override
+    public void onRelease(Activity origin) {
+        checkNotNull(origin, "Origin activity can not be null");
+
+        // only the origin class is kept: nothing to release
+        journal(CALL_RELEASE, origin, IGNORED);
+    }
+
     @Override
     public void onFinish(Activity origin) {
-        // FINISH can be called after STOP
-        if (!isValid(origin, AppLifecycleEvent.STOP)) {
+        // by default FINISH can be called after STOP
+        if (!isValid(origin, AppLifecycleEvent.FINISH)) {
             return;
         }
 
         // different origin: ignore
         if (!origin.getClass().equals(currentOrigin)) {
+            journal(AppLifecycleEvent.FINISH.ordinal(), origin, IGNORED);
             return;
         }
 
-        notifyListeners(new ListenerNotifier() {
-            @Override
-            public void call(AppLifecycleEventListener listener) {
-                if (listener instanceof OnAppFinished) {
-                    ((OnAppFinished) listener).onAppFinished(currentOrigin);
-                }
-            }
-        });
+        journal(AppLifecycleEvent.FINISH.ordinal(), origin, ACCEPTED);
+
+        // finished within the stop grace period: notify the pending STOP event first
+        flushPendingStop();
+
+        notifyListeners(AppLifecycleEvent.FINISH);
 
         // reset state
         currentOrigin = null;
         lastEvent = null;
 
-        for (AppLifecycleEventListener listener : listeners) {
-            removeListener(listener);
-        }
+        // end the session: remove all listeners, except persistent listeners
+        endSession();
     }
 
     //----------------------------------------------------------------------------------------------
     // PUBLIC METHODS
     //----------------------------------------------------------------------------------------------
 
+    @Override
+    protected boolean hasActiveSession() {
+        return lastEvent != null;
+    }
+
     /**
-     * Validates the origin activity and allowed last events. For example, PAUSE can only be called
-     * after RESUME.
+     * Returns whether the event is triggered by the activity that is recreated after a
+     * configuration change, up to the state of the destroyed activity. These events are not
+     * notified to the listeners.
      *
-     * @param origin            The activity that triggered the event.
-     * @param allowedLastEvents The events after which this event is allowed to be triggered.
-     * @return Whether this event is allowed to be triggered.
+     * @param origin The activity that triggered the event.
+     * @param event  The event that is triggered.
+     * @return Whether the event should be ignored.
      */
-    protected boolean isValid(Activity origin, AppLifecycleEvent... allowedLastEvents) {
+    protected boolean isRecreation(Activity origin, AppLifecycleEvent event) {
         checkNotNull(origin, "Origin activity can not be null");
 
-        return Arrays.asList(allowedLastEvents).contains(lastEvent);
+        final AppLifecycleEvent lastRecreationEvent = recreationEvent;
+
+        if (lastRecreationEvent == null || !origin.getClass().equals(currentOrigin)) {
+            return false;
+        }
+
+        // the recreated activity has reached the state of the destroyed activity
+        if (event.compareTo(lastRecreationEvent) >= 0) {
+            recreationEvent = null;
+        }
+
+        if (event.compareTo(lastRecreationEvent) > 0) {
+            return false;
+        }
+
+        journal(event.ordinal(), origin, IGNORED);
+
+        return true;
     }
 
     /**
-     * Use the listener notifier to call a specific event method on all listeners.
+     * Validates the origin activity and whether the event is allowed after the last event, using
+     * the transition policy. For example, by default PAUSE can only be called after RESUME.
+     * Rejected calls are journaled; the caller journals whether a valid call was accepted or
+     * ignored, e.g. because of a different origin.
      *
-     * @param notifier Utility for calling the correct lifecycle event methods.
+     * @param origin The activity that triggered the event.
+     * @param event  The event that is triggered.
+     * @return Whether this event is allowed to be triggered.
      */
-    protected void notifyListeners(ListenerNotifier notifier) {
-        final List<AppLifecycleEventListener> calledListeners = new LinkedList<AppLifecycleEventListener>();
-        final int numListeners = listeners.size();
-
-        /**
-         * Call listeners in reverse order (added first, called last). Calling listeners this way
-         * will prevent a concurrent modification exception, but requires keeping track of called
-         * listeners.
-         */
-        for (int i = numListeners - 1; i >= 0; i--) {
-            final AppLifecycleEventListener listener = listeners.get(i);
-
-            if (!calledListeners.contains(listener)) {
-                notifier.call(listener);
-                calledListeners.add(listener);
-            }
+    protected boolean isValid(Activity origin, AppLifecycleEvent event) {
+        checkNotNull(origin, "Origin activity can not be null");
+
+        if (transitionPolicy.isAllowed(event, lastEvent)) {
+            return true;
         }
-    }
 
-    //----------------------------------------------------------------------------------------------
-    // INTERFACE: listener notifier
-    //----------------------------------------------------------------------------------------------
+        journal(event.ordinal(), origin, REJECTED);
+
+        return false;
+    }
 
     /**
-     * Utility for calling the correct lifecycle event methods.
+     * Calls the event method on all listeners of that event, with the current origin.
+     *
+     * @param event The event to notify the listeners of.
      */
-    protected interface ListenerNotifier {
-
-        /**
-         * Call a certain listener method.
-         *
-         * @param listener The listener instance.
-         */
-        void call(AppLifecycleEventListener listener);
-
+    protected void notifyListeners(AppLifecycleEvent event) {
+        notifyListeners(event, currentOrigin);
     }
 
 }
@@ -0,0 +1,137 @@
+package com.cookingfox.android.app_lifecycle.impl.manager;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import static com.cookingfox.guava_preconditions.Preconditions.checkNotNull;
+
+/**
+ * App lifecycle clock implementation that uses {@link SystemClock#uptimeMillis()} and
+ * {@link SystemClock#elapsedRealtime()}, and posts tasks to a {@link Handler}, by default of the
+ * main thread. Idle tasks are run by a {@link MessageQueue.IdleHandler} of the handler's thread.
+ */
+public class HandlerAppLifecycleClock implements AppLifecycleClock {
+
+    /**
+     * Runs the delayed tasks.
+     */
+    protected final Handler handler;
+
+    /**
+     * The idle tasks that were posted and did not run or were cancelled yet.
+     */
+    protected final List<IdleTask> idleTasks = new LinkedList<IdleTask>();
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    public HandlerAppLifecycleClock() {
+        this(new Handler(Looper.getMainLooper()));
+    }
+
+    public HandlerAppLifecycleClock(Handler handler) {
+        this.handler = checkNotNull(handler, "Handler can not be null");
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public long uptimeMillis() {
+        return SystemClock.uptimeMillis();
+    }
+
+    @Override
+    public long elapsedRealtime() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    @Override
+    public void postDelayed(Runnable task, long delayMillis) {
+        handler.postDelayed(task, delayMillis);
+    }
+
+    @Override
+    public void postWhenIdle(Runnable task) {
+        final IdleTask idleTask = new IdleTask(checkNotNull(task, "Task can not be null"));
+
+        synchronized (idleTasks) {
+            idleTasks.add(idleTask);
+        }
+
+        // the idle handler must be added on the handler's thread
+        handler.post(idleTask);
+    }
+
+    @Override
+    public void removeCallbacks(Runnable task) {
+        handler.removeCallbacks(task);
+
+        synchronized (idleTasks) {
+            final Iterator<IdleTask> iterator = idleTasks.iterator();
+
+            while (iterator.hasNext()) {
+                final IdleTask idleTask = iterator.next();
+
+                if (idleTask.task == task) {
+                    // an idle handler that was already added will see that it was removed
+                    handler.removeCallbacks(idleTask);
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASS: idle task
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Adds itself as an idle handler when it is run as a message, and runs the task once when the
+     * thread is idle. Since the idle handler is added from a message, the message queue checks
+     * for idle handlers again after it, so an idle task that posts the next one does not wait for
+     * an unrelated message.
+     */
+    protected class IdleTask implements Runnable, MessageQueue.IdleHandler {
+
+        /**
+         * The task to run when the thread is idle.
+         */
+        final Runnable task;
+
+        IdleTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            Looper.myQueue().addIdleHandler(this);
+        }
+
+        @Override
+        public boolean queueIdle() {
+            final boolean pending;
+
+            synchronized (idleTasks) {
+                pending = idleTasks.remove(this);
+            }
+
+            if (pending) {
+                task.run();
+            }
+
+            // run once
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,312 @@
+package com.cookingfox.android.app_lifecycle.impl.manager;
+
+import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleEventListener;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.cookingfox.guava_preconditions.Preconditions.checkArgument;
+import static com.cookingfox.guava_preconditions.Preconditions.checkNotNull;
+
+/**
+ * Collects per-listener, per-event dispatch timing statistics and reports listener calls that
+ * exceed a time budget. Statistics are kept until {@link #reset()} is called, including those of
+ * listeners that were removed, but the listeners are held weakly: the statistics of a listener are
+ * dropped when it is garbage collected.
+ *
+ * @see AbstractAppLifecycleManager#setDispatchMonitor(ListenerDispatchMonitor)
+ */
+public class ListenerDispatchMonitor {
+
+    /**
+     * The maximum duration of a listener call, in nanoseconds, before it is reported.
+     */
+    protected final long budgetNanos;
+
+    /**
+     * Is notified of listener calls that exceed the budget.
+     */
+    protected final SlowListenerReporter reporter;
+
+    /**
+     * Statistics per listener, keyed by a weak reference to the listener. The statistics are
+     * updated from the threads that call the listeners, e.g. the async executor, so they are only
+     * accessed while holding the lock of this monitor.
+     */
+    protected final Map<Object, Stats> stats = new HashMap<Object, Stats>();
+
+    /**
+     * Is notified of the keys of listeners that were garbage collected.
+     */
+    protected final ReferenceQueue<AppLifecycleEventListener> collected =
+            new ReferenceQueue<AppLifecycleEventListener>();
+
+    /**
+     * Reusable key to look up the statistics of a listener without allocating.
+     */
+    protected final LookupKey lookupKey = new LookupKey();
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTOR
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @param budget   The maximum duration of a listener call before it is reported.
+     * @param unit     The time unit of the budget.
+     * @param reporter Is notified of listener calls that exceed the budget.
+     */
+    public ListenerDispatchMonitor(long budget, TimeUnit unit, SlowListenerReporter reporter) {
+        checkArgument(budget >= 0, "Budget can not be negative");
+
+        this.budgetNanos = checkNotNull(unit, "Time unit can not be null").toNanos(budget);
+        this.reporter = checkNotNull(reporter, "Reporter can not be null");
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Returns a copy of the statistics of the listener, made while holding the lock of this
+     * monitor, so it contains consistent values. The copy is not updated by later listener calls.
+     *
+     * @param listener The listener to get the statistics for.
+     * @return The listener statistics, or `null` if the listener was not called.
+     */
+    public synchronized Stats getStats(AppLifecycleEventListener listener) {
+        final Stats listenerStats = stats.get(lookupKey.set(listener));
+
+        lookupKey.set(null);
+
+        return listenerStats == null ? null : listenerStats.copy();
+    }
+
+    /**
+     * Records the duration of a listener call, and reports it if it exceeds the budget.
+     *
+     * @param event         The event the listener was notified of.
+     * @param listener      The listener that was called.
+     * @param durationNanos The duration of the call in nanoseconds.
+     */
+    public void record(AppLifecycleEvent event, AppLifecycleEventListener listener, long durationNanos) {
+        synchronized (this) {
+            purgeCollected();
+
+            Stats listenerStats = stats.get(lookupKey.set(listener));
+
+            lookupKey.set(null);
+
+            if (listenerStats == null) {
+                listenerStats = new Stats();
+                stats.put(new WeakKey(listener, collected), listenerStats);
+            }
+
+            listenerStats.record(event, durationNanos);
+        }
+
+        if (durationNanos > budgetNanos) {
+            reporter.onSlowListener(listener, event, durationNanos);
+        }
+    }
+
+    /**
+     * Clears all statistics.
+     */
+    public synchronized void reset() {
+        stats.clear();
+
+        // the keys are no longer in the map
+        while (collected.poll() != null) {
+            // drain
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Removes the statistics of the listeners that were garbage collected.
+     */
+    protected synchronized void purgeCollected() {
+        Reference<? extends AppLifecycleEventListener> key;
+
+        while ((key = collected.poll()) != null) {
+            stats.remove(key);
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INTERFACE: slow listener reporter
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Is notified of listener calls that exceed the budget.
+     */
+    public interface SlowListenerReporter {
+
+        /**
+         * Called after a listener call that exceeded the budget, on the thread that called the
+         * listener.
+         *
+         * @param listener      The slow listener.
+         * @param event         The event the listener was notified of.
+         * @param durationNanos The duration of the call in nanoseconds.
+         */
+        void onSlowListener(AppLifecycleEventListener listener, AppLifecycleEvent event, long durationNanos);
+
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASS: keys
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Key of the statistics map that holds the listener weakly and compares it by identity. A
+     * cleared key is only equal to itself, so it can still be removed from the map.
+     */
+    protected static final class WeakKey extends WeakReference<AppLifecycleEventListener> {
+
+        /**
+         * The identity hash code of the listener, which stays the same after it is cleared.
+         */
+        final int hash;
+
+        WeakKey(AppLifecycleEventListener listener,
+                ReferenceQueue<AppLifecycleEventListener> queue) {
+            super(listener, queue);
+            this.hash = System.identityHashCode(listener);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other == this) {
+                return true;
+            }
+
+            final AppLifecycleEventListener listener = get();
+
+            return listener != null && other instanceof LookupKey
+                    && ((LookupKey) other).listener == listener;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+    /**
+     * Mutable key to look up the statistics of a listener, which is equal to the weak key of the
+     * same listener instance.
+     */
+    protected static final class LookupKey {
+
+        /**
+         * The listener to look up, or `null` when not in use.
+         */
+        AppLifecycleEventListener listener;
+
+        LookupKey set(AppLifecycleEventListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return listener != null && other instanceof WeakKey
+                    && ((WeakKey) other).get() == listener;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(listener);
+        }
+
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASS: stats
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Dispatch timing statistics of a listener, per event. The monitor only updates its own
+     * instances while holding its lock, and only hands out copies, so the values of an instance
+     * returned by {@link #getStats(AppLifecycleEventListener)} do not change.
+     */
+    public static final class Stats {
+
+        /**
+         * The number of notifications, indexed by event ordinal.
+         */
+        final long[] counts = new long[AppLifecycleEvent.values().length];
+
+        /**
+         * The total duration of the notifications in nanoseconds, indexed by event ordinal.
+         */
+        final long[] totalNanos = new long[counts.length];
+
+        /**
+         * The longest duration of a notification in nanoseconds, indexed by event ordinal.
+         */
+        final long[] maxNanos = new long[counts.length];
+
+        /**
+         * @param event The event.
+         * @return The number of times the listener was notified of the event.
+         */
+        public long getCount(AppLifecycleEvent event) {
+            return counts[event.ordinal()];
+        }
+
+        /**
+         * @param event The event.
+         * @return The longest duration of a notification of the event, in nanoseconds.
+         */
+        public long getMaxNanos(AppLifecycleEvent event) {
+            return maxNanos[event.ordinal()];
+        }
+
+        /**
+         * @param event The event.
+         * @return The total duration of the notifications of the event, in nanoseconds.
+         */
+        public long getTotalNanos(AppLifecycleEvent event) {
+            return totalNanos[event.ordinal()];
+        }
+
+        /**
+         * @return A copy of the statistics. Must be called while holding the lock of the monitor.
+         */
+        Stats copy() {
+            final Stats copy = new Stats();
+
+            System.arraycopy(counts, 0, copy.counts, 0, counts.length);
+            System.arraycopy(totalNanos, 0, copy.totalNanos, 0, totalNanos.length);
+            System.arraycopy(maxNanos, 0, copy.maxNanos, 0, maxNanos.length);
+
+            return copy;
+        }
+
+        /**
+         * Adds a notification of the event. Must be called while holding the lock of the monitor.
+         */
+        void record(AppLifecycleEvent event, long durationNanos) {
+            final int index = event.ordinal();
+
+            counts[index]++;
+            totalNanos[index] += durationNanos;
+
+            if (durationNanos > maxNanos[index]) {
+                maxNanos[index] = durationNanos;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,284 @@
+package com.cookingfox.android.app_lifecycle.impl.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.cookingfox.guava_preconditions.Preconditions.checkArgument;
+import static com.cookingfox.guava_preconditions.Preconditions.checkNotNull;
+
+/**
+ * Histogram of durations in milliseconds with fixed buckets. Recording a value only increments a
+ * few atomic counters, so it does not allocate or lock, and snapshots can be taken from any thread.
+ * Percentiles are approximated by the upper bound of the bucket that contains them.
+ */
+public class AppLifecycleHistogram {
+
+    /**
+     * Default upper bounds of the buckets in milliseconds: 1 second to 1 day. Private, since arrays
+     * are mutable: use {@link #getDefaultBoundsMillis()}.
+     */
+    private static final long[] DEFAULT_BOUNDS_MILLIS = {
+            1000, 2000, 5000,
+            10000, 30000,
+            60000, 2 * 60000, 5 * 60000,
+            10 * 60000, 30 * 60000,
+            3600000, 2 * 3600000, 6 * 3600000,
+            12 * 3600000, 24 * 3600000
+    };
+
+    /**
+     * Inclusive upper bounds of the buckets, in ascending order. Values above the last bound are
+     * counted in an extra overflow bucket.
+     */
+    protected final long[] bounds;
+
+    /**
+     * The number of values per bucket, including the overflow bucket.
+     */
+    protected final AtomicLongArray counts;
+
+    /**
+     * The sum of the recorded values in milliseconds.
+     */
+    protected final AtomicLong sum = new AtomicLong();
+
+    /**
+     * The largest recorded value in milliseconds.
+     */
+    protected final AtomicLong max = new AtomicLong();
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    public AppLifecycleHistogram() {
+        this(DEFAULT_BOUNDS_MILLIS);
+    }
+
+    /**
+     * @param bounds The inclusive upper bounds of the buckets in milliseconds, in ascending order.
+     */
+    public AppLifecycleHistogram(long[] bounds) {
+        checkNotNull(bounds, "Bounds can not be null");
+        checkArgument(bounds.length > 0, "Bounds can not be empty");
+
+        for (int i = 1; i < bounds.length; i++) {
+            checkArgument(bounds[i] > bounds[i - 1], "Bounds must be in ascending order");
+        }
+
+        this.bounds = bounds.clone();
+        this.counts = new AtomicLongArray(bounds.length + 1);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @return A copy of the default upper bounds of the buckets in milliseconds: 1 second to 1 day.
+     */
+    public static long[] getDefaultBoundsMillis() {
+        return DEFAULT_BOUNDS_MILLIS.clone();
+    }
+
+    /**
+     * Records a duration. Negative durations, e.g. caused by a clock that went back, are ignored.
+     *
+     * @param millis The duration in milliseconds.
+     */
+    public void record(long millis) {
+        if (millis < 0) {
+            return;
+        }
+
+        int index = Arrays.binarySearch(bounds, millis);
+
+        // not an exact bound: use the insertion point, which is the first larger bound
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        counts.incrementAndGet(index);
+        sum.addAndGet(millis);
+
+        long currentMax;
+
+        while (millis > (currentMax = max.get()) && !max.compareAndSet(currentMax, millis)) {
+            // retry
+        }
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        snapshotAndReset();
+    }
+
+    /**
+     * @return A snapshot of the recorded values.
+     */
+    public Snapshot snapshot() {
+        final long[] values = new long[counts.length()];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = counts.get(i);
+        }
+
+        return new Snapshot(bounds, values, sum.get(), max.get());
+    }
+
+    /**
+     * Returns a snapshot of the recorded values and removes them, so every recorded value is
+     * included in exactly one snapshot. Values recorded concurrently are either included in this
+     * snapshot or the next, but the sum and maximum are not updated atomically with the counts.
+     *
+     * @return A snapshot of the recorded values.
+     */
+    public Snapshot snapshotAndReset() {
+        final long[] values = new long[counts.length()];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = counts.getAndSet(i, 0);
+        }
+
+        return new Snapshot(bounds, values, sum.getAndSet(0), max.getAndSet(0));
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASS: snapshot
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Immutable snapshot of the values recorded by a histogram.
+     */
+    public static final class Snapshot {
+
+        /**
+         * The upper bounds of the buckets, shared with the histogram.
+         */
+        final long[] bounds;
+
+        /**
+         * The number of values per bucket, including the overflow bucket.
+         */
+        final long[] counts;
+
+        /**
+         * The total number of values.
+         */
+        final long count;
+
+        /**
+         * The sum of the values in milliseconds.
+         */
+        final long sum;
+
+        /**
+         * The largest value in milliseconds.
+         */
+        final long max;
+
+        Snapshot(long[] bounds, long[] counts, long sum, long max) {
+            long total = 0;
+
+            for (long bucketCount : counts) {
+                total += bucketCount;
+            }
+
+            this.bounds = bounds;
+            this.counts = counts;
+            this.count = total;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * @return The inclusive upper bounds of the buckets, excluding the overflow bucket.
+         */
+        public long[] getBounds() {
+            return bounds.clone();
+        }
+
+        /**
+         * @return The number of values per bucket, where the last bucket contains the values above
+         * the last bound.
+         */
+        public long[] getCounts() {
+            return counts.clone();
+        }
+
+        /**
+         * @return The number of recorded values.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return The largest recorded value, or 0 if no values were recorded.
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * @return The mean of the recorded values, or 0 if no values were recorded.
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Returns the upper bound of the bucket that contains the percentile, limited to the
+         * largest recorded value. For example, `getPercentile(50)` returns the approximate median.
+         *
+         * @param percentile The percentile, larger than 0 and at most 100.
+         * @return The approximate value at the percentile, or 0 if no values were recorded.
+         */
+        public long getPercentile(double percentile) {
+            checkArgument(percentile > 0 && percentile <= 100,
+                    "Percentile must be larger than 0 and at most 100");
+
+            if (count == 0) {
+                return 0;
+            }
+
+            final long rank = (long) Math.ceil(percentile / 100 * count);
+            long cumulative = 0;
+
+            for (int i = 0; i < bounds.length; i++) {
+                cumulative += counts[i];
+
+                if (cumulative >= rank) {
+                    return Math.min(bounds[i], max);
+                }
+            }
+
+            // overflow bucket
+            return max;
+        }
+
+        /**
+         * @return The sum of the recorded values.
+         */
+        public long getSum() {
+            return sum;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                    "count=" + count +
+                    ", mean=" + getMean() +
+                    ", p50=" + getPercentile(50) +
+                    ", p90=" + getPercentile(90) +
+                    ", p99=" + getPercentile(99) +
+                    ", max=" + max +
+                    '}';
+        }
+
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.cookingfox.android.app_lifecycle.impl.metrics;
+
+import com.cookingfox.android.app_lifecycle.impl.listener.PersistentAppLifecycleListener;
+import com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleClock;
+import com.cookingfox.android.app_lifecycle.impl.manager.HandlerAppLifecycleClock;
+
+import static com.cookingfox.guava_preconditions.Preconditions.checkNotNull;
+
+/**
+ * Persistent app lifecycle listener that records how long the app is in the foreground and in the
+ * background:
+ * <ul>
+ * <li>Foreground duration: from START to STOP</li>
+ * <li>Background duration: from STOP to the next START, or to FINISH</li>
+ * </ul>
+ * Durations are measured using {@link AppLifecycleClock#elapsedRealtime()}, so time spent in deep
+ * sleep is included. The histograms can be polled from any thread, e.g. by an analytics job:
+ * <pre>
+ * AppLifecycleHistogram.Snapshot foreground = metrics.getForegroundDurations().snapshotAndReset();
+ * </pre>
+ * The lifecycle methods must be called from the main thread, which is the case when this listener
+ * is added to an app lifecycle manager.
+ */
+public class AppLifecycleSessionMetrics extends PersistentAppLifecycleListener {
+
+    /**
+     * The source of time.
+     */
+    protected final AppLifecycleClock clock;
+
+    /**
+     * The durations from START to STOP.
+     */
+    protected final AppLifecycleHistogram foregroundDurations;
+
+    /**
+     * The durations from STOP to the next START or FINISH.
+     */
+    protected final AppLifecycleHistogram backgroundDurations;
+
+    /**
+     * The time the app was started, or -1 if it is not started.
+     */
+    protected long startedAt = -1;
+
+    /**
+     * The time the app was stopped, or -1 if it is not in the background.
+     */
+    protected long stoppedAt = -1;
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    public AppLifecycleSessionMetrics() {
+        this(new HandlerAppLifecycleClock());
+    }
+
+    public AppLifecycleSessionMetrics(AppLifecycleClock clock) {
+        this(clock, new AppLifecycleHistogram(), new AppLifecycleHistogram());
+    }
+
+    /**
+     * @param clock               The source of time.
+     * @param foregroundDurations The histogram of foreground durations.
+     * @param backgroundDurations The histogram of background durations.
+     */
+    public AppLifecycleSessionMetrics(AppLifecycleClock clock,
+                                      AppLifecycleHistogram foregroundDurations,
+                                      AppLifecycleHistogram backgroundDurations) {
+        this.clock = checkNotNull(clock, "Clock can not be null");
+        this.foregroundDurations = checkNotNull(foregroundDurations,
+                "Foreground histogram can not be null");
+        this.backgroundDurations = checkNotNull(backgroundDurations,
+                "Background histogram can not be null");
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @return The histogram of the durations from STOP to the next START or FINISH.
+     */
+    public AppLifecycleHistogram getBackgroundDurations() {
+        return backgroundDurations;
+    }
+
+    /**
+     * @return The histogram of the durations from START to STOP.
+     */
+    public AppLifecycleHistogram getForegroundDurations() {
+        return foregroundDurations;
+    }
+
+    /**
+     * Removes the recorded durations of both histograms.
+     */
+    public void reset() {
+        foregroundDurations.reset();
+        backgroundDurations.reset();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // APP LIFECYCLE METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public void onAppStarted(Class<?> origin) {
+        final long now = clock.elapsedRealtime();
+
+        if (stoppedAt >= 0) {
+            backgroundDurations.record(now - stoppedAt);
+            stoppedAt = -1;
+        }
+
+        startedAt = now;
+    }
+
+    @Override
+    public void onAppStopped(Class<?> origin) {
+        final long now = clock.elapsedRealtime();
+
+        if (startedAt >= 0) {
+            foregroundDurations.record(now - startedAt);
+            startedAt = -1;
+        }
+
+        stoppedAt = now;
+    }
+
+    @Override
+    public void onAppFinished(Class<?> origin) {
+        if (stoppedAt >= 0) {
+            backgroundDurations.record(clock.elapsedRealtime() - stoppedAt);
+            stoppedAt = -1;
+        }
+
+        startedAt = -1;
+    }
+
+}
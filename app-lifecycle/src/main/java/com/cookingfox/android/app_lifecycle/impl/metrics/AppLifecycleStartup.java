@@ -0,0 +1,165 @@
+package com.cookingfox.android.app_lifecycle.impl.metrics;
+
+/**
+ * Immutable measurement of an app startup, from the start of the process (cold), the creation of
+ * the app (warm) or the start of the app (hot), to the moment the app is resumed. All times are in
+ * milliseconds since boot, including deep sleep, where -1 means unknown or not applicable.
+ *
+ * @see AppLifecycleStartupTracker
+ */
+public final class AppLifecycleStartup {
+
+    /**
+     * The type of app startup.
+     */
+    public enum Type {
+
+        /**
+         * The process was started and the app was created for the first time.
+         */
+        COLD,
+
+        /**
+         * The process was already running, because the app had finished or the process was
+         * started for another component, e.g. a service, and the app was created.
+         */
+        WARM,
+
+        /**
+         * The app was stopped and started again, without being created again.
+         */
+        HOT
+
+    }
+
+    /**
+     * The type of startup, which determines the start of the total duration.
+     */
+    final Type type;
+
+    /**
+     * The time the process was started, or -1 if this is not a cold start or the process start is
+     * not known, e.g. before SDK 24. {@link #getTotalMillis()} starts at the first known time of
+     * this, {@link #initializedMillis}, {@link #createdMillis} and {@link #startedMillis}.
+     */
+    final long processStartMillis;
+
+    /**
+     * The time the tracker was initialized, usually in {@code Application.onCreate()}, or -1 if this
+     * is not a cold start.
+     */
+    final long initializedMillis;
+
+    /**
+     * The time the app was created, or -1 for a hot start.
+     */
+    final long createdMillis;
+
+    /**
+     * The time the app was started. Always known.
+     */
+    final long startedMillis;
+
+    /**
+     * The time the app was resumed, which ends the startup. Always known.
+     */
+    final long resumedMillis;
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTOR
+    //----------------------------------------------------------------------------------------------
+
+    AppLifecycleStartup(Type type, long processStartMillis, long initializedMillis,
+                        long createdMillis, long startedMillis, long resumedMillis) {
+        this.type = type;
+        this.processStartMillis = processStartMillis;
+        this.initializedMillis = initializedMillis;
+        this.createdMillis = createdMillis;
+        this.startedMillis = startedMillis;
+        this.resumedMillis = resumedMillis;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @return The duration from the app being created to being resumed, or -1 for a hot start.
+     */
+    public long getCreateToResumeMillis() {
+        return between(createdMillis, resumedMillis);
+    }
+
+    /**
+     * @return The duration from the tracker being initialized to the app being created, or -1 if
+     * this is not a cold start.
+     */
+    public long getInitializeToCreateMillis() {
+        return between(initializedMillis, createdMillis);
+    }
+
+    /**
+     * @return The duration from the process start to the tracker being initialized, which includes
+     * loading the application, or -1 if this is not a cold start or the process start is unknown.
+     */
+    public long getProcessToInitializeMillis() {
+        return between(processStartMillis, initializedMillis);
+    }
+
+    /**
+     * @return The duration from the app being started to being resumed.
+     */
+    public long getStartToResumeMillis() {
+        return between(startedMillis, resumedMillis);
+    }
+
+    /**
+     * Returns the total duration of the startup: from the process start for a cold start (or the
+     * tracker initialization if the process start is unknown), from the app being created for a
+     * warm start, and from the app being started for a hot start.
+     *
+     * @return The total duration of the startup.
+     */
+    public long getTotalMillis() {
+        if (processStartMillis >= 0) {
+            return resumedMillis - processStartMillis;
+        } else if (initializedMillis >= 0) {
+            return resumedMillis - initializedMillis;
+        } else if (createdMillis >= 0) {
+            return resumedMillis - createdMillis;
+        }
+
+        return resumedMillis - startedMillis;
+    }
+
+    /**
+     * @return The type of startup.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return "AppLifecycleStartup{" +
+                "type=" + type +
+                ", totalMillis=" + getTotalMillis() +
+                ", processToInitializeMillis=" + getProcessToInitializeMillis() +
+                ", initializeToCreateMillis=" + getInitializeToCreateMillis() +
+                ", createToResumeMillis=" + getCreateToResumeMillis() +
+                ", startToResumeMillis=" + getStartToResumeMillis() +
+                '}';
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PRIVATE METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @return The duration between the two times, or -1 if one of them is unknown.
+     */
+    private static long between(long from, long to) {
+        return from < 0 || to < 0 ? -1 : to - from;
+    }
+
+}
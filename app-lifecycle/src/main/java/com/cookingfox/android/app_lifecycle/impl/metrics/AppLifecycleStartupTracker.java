@@ -0,0 +1,298 @@
+package com.cookingfox.android.app_lifecycle.impl.metrics;
+
+import android.os.Build;
+import android.os.Process;
+
+import com.cookingfox.android.app_lifecycle.impl.listener.PersistentAppLifecycleListener;
+import com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleClock;
+import com.cookingfox.android.app_lifecycle.impl.manager.HandlerAppLifecycleClock;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+
+import static com.cookingfox.guava_preconditions.Preconditions.checkArgument;
+import static com.cookingfox.guava_preconditions.Preconditions.checkNotNull;
+
+/**
+ * Persistent app lifecycle listener that measures the app startups and classifies them as cold,
+ * warm or hot:
+ * <ul>
+ * <li>Cold: the first CREATE of the process, measured from the process start to RESUME</li>
+ * <li>Warm: CREATE after the app finished, or a first CREATE that happens more than the cold start
+ * window after the process start, measured from CREATE to RESUME</li>
+ * <li>Hot: START after the app was stopped, measured from START to RESUME</li>
+ * </ul>
+ * Create the tracker directly after initializing the {@code AppLifecycleProvider} in
+ * {@code Application.onCreate()}, so the first CREATE is observed and the time until the
+ * initialization can be measured. Add it with a high priority, so it is notified before other
+ * listeners:
+ * <pre>
+ * manager.addListener(new AppLifecycleStartupTracker(), AppLifecycleListenable.PRIORITY_HIGH);
+ * </pre>
+ * The cold start window covers processes that were started for another component, e.g. a service
+ * or broadcast receiver, and only show an activity later: the time until the first CREATE is not
+ * part of the app startup, so it is not reported as a cold start.
+ * <p>
+ * The lifecycle methods must be called from the main thread, which is the case when this listener
+ * is added to an app lifecycle manager.
+ */
+public class AppLifecycleStartupTracker extends PersistentAppLifecycleListener {
+
+    /**
+     * The default maximum time from the process start to the first CREATE for a cold start.
+     */
+    public static final long DEFAULT_COLD_START_WINDOW_MILLIS = 10000;
+
+    /**
+     * Android 7.0, which added {@code Process.getStartElapsedRealtime()}.
+     */
+    protected static final int SDK_PROCESS_START = 24;
+
+    /**
+     * The clock ticks per second of the `/proc` file system (`USER_HZ`), which is fixed by the
+     * Linux ABI.
+     */
+    protected static final int PROC_TICKS_PER_SECOND = 100;
+
+    /**
+     * Index of the start time in `/proc/self/stat`, counted from the field after the command name.
+     */
+    protected static final int PROC_STAT_START_TIME_INDEX = 19;
+
+    /**
+     * The source of time.
+     */
+    protected final AppLifecycleClock clock;
+
+    /**
+     * The start time of the process, or -1 if unknown.
+     */
+    protected final long processStartMillis;
+
+    /**
+     * The time the tracker was created, which is close to {@code Application.onCreate()}.
+     */
+    protected final long initializedMillis;
+
+    /**
+     * The maximum time from the process start to the first CREATE for a cold start.
+     */
+    protected final long coldStartWindowMillis;
+
+    /**
+     * Is notified of every measured startup, or `null`.
+     */
+    protected volatile Listener listener;
+
+    /**
+     * The last measured startup, or `null` if none.
+     */
+    protected volatile AppLifecycleStartup lastStartup;
+
+    /**
+     * Whether the app was created in this process before.
+     */
+    protected boolean created;
+
+    /**
+     * Whether the app was stopped and not started or finished since.
+     */
+    protected boolean stopped;
+
+    /**
+     * The type of the startup that is in progress, or `null` if none.
+     */
+    protected AppLifecycleStartup.Type pendingType;
+
+    /**
+     * The time of the last CREATE, or -1 if none.
+     */
+    protected long createdMillis = -1;
+
+    /**
+     * The time of the last START, or -1 if none.
+     */
+    protected long startedMillis = -1;
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    public AppLifecycleStartupTracker() {
+        this(new HandlerAppLifecycleClock(), readProcessStartMillis());
+    }
+
+    public AppLifecycleStartupTracker(AppLifecycleClock clock, long processStartMillis) {
+        this(clock, processStartMillis, DEFAULT_COLD_START_WINDOW_MILLIS);
+    }
+
+    /**
+     * @param clock                 The source of time.
+     * @param processStartMillis    The start time of the process as
+     *                              {@link AppLifecycleClock#elapsedRealtime()}, or -1 if unknown.
+     * @param coldStartWindowMillis The maximum time from the process start (or the tracker
+     *                              initialization if unknown) to the first CREATE for a cold start.
+     */
+    public AppLifecycleStartupTracker(AppLifecycleClock clock, long processStartMillis,
+                                      long coldStartWindowMillis) {
+        checkArgument(coldStartWindowMillis >= 0, "Cold start window can not be negative");
+
+        this.clock = checkNotNull(clock, "Clock can not be null");
+        this.processStartMillis = processStartMillis;
+        this.initializedMillis = clock.elapsedRealtime();
+        this.coldStartWindowMillis = coldStartWindowMillis;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @return The last measured startup, or `null` if the app was not resumed yet.
+     */
+    public AppLifecycleStartup getLastStartup() {
+        return lastStartup;
+    }
+
+    /**
+     * Sets the listener that is notified of every measured startup, on the main thread.
+     *
+     * @param listener The listener, or `null` to remove it.
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // APP LIFECYCLE METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public void onAppCreated(Class<?> origin) {
+        createdMillis = clock.elapsedRealtime();
+
+        // started for another component: the activity was launched in a running process
+        final long startMillis = processStartMillis >= 0 ? processStartMillis : initializedMillis;
+        final boolean cold = !created && createdMillis - startMillis <= coldStartWindowMillis;
+
+        pendingType = cold ? AppLifecycleStartup.Type.COLD : AppLifecycleStartup.Type.WARM;
+        created = true;
+        stopped = false;
+    }
+
+    @Override
+    public void onAppStarted(Class<?> origin) {
+        startedMillis = clock.elapsedRealtime();
+
+        if (pendingType == null && stopped) {
+            pendingType = AppLifecycleStartup.Type.HOT;
+        }
+
+        stopped = false;
+    }
+
+    @Override
+    public void onAppResumed(Class<?> origin) {
+        final AppLifecycleStartup.Type type = pendingType;
+
+        if (type == null) {
+            return;
+        }
+
+        final boolean cold = type == AppLifecycleStartup.Type.COLD;
+        final AppLifecycleStartup startup = new AppLifecycleStartup(type,
+                cold ? processStartMillis : -1,
+                cold ? initializedMillis : -1,
+                type != AppLifecycleStartup.Type.HOT ? createdMillis : -1,
+                startedMillis,
+                clock.elapsedRealtime());
+
+        pendingType = null;
+        lastStartup = startup;
+
+        final Listener currentListener = listener;
+
+        if (currentListener != null) {
+            currentListener.onAppStartupMeasured(startup);
+        }
+    }
+
+    @Override
+    public void onAppStopped(Class<?> origin) {
+        // stopped before it was resumed: not a complete startup
+        pendingType = null;
+        stopped = true;
+    }
+
+    @Override
+    public void onAppFinished(Class<?> origin) {
+        pendingType = null;
+        stopped = false;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Returns the start time of the process in milliseconds since boot, using
+     * {@code Process.getStartElapsedRealtime()} on Android 7.0 and higher, and the start time in
+     * `/proc/self/stat` on older versions, which has a resolution of 10 milliseconds.
+     *
+     * @return The start time of the process, or -1 if it can not be determined.
+     */
+    protected static long readProcessStartMillis() {
+        // called using reflection, since the library is compiled against an older SDK
+        if (Build.VERSION.SDK_INT >= SDK_PROCESS_START) {
+            try {
+                return (Long) Process.class.getMethod("getStartElapsedRealtime").invoke(null);
+            } catch (Exception e) {
+                // fall back to proc file system
+            }
+        }
+
+        BufferedReader reader = null;
+
+        try {
+            reader = new BufferedReader(new FileReader("/proc/self/stat"));
+
+            final String stat = reader.readLine();
+
+            // the command name is in parentheses and can contain spaces
+            final String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            final long ticks = Long.parseLong(fields[PROC_STAT_START_TIME_INDEX]);
+
+            return ticks * 1000 / PROC_TICKS_PER_SECOND;
+        } catch (Exception e) {
+            return -1;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASS: listener
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Listener for measured app startups.
+     */
+    public interface Listener {
+
+        /**
+         * Called when the app is resumed after a startup.
+         *
+         * @param startup The measured startup.
+         */
+        void onAppStartupMeasured(AppLifecycleStartup startup);
+
+    }
+
+}
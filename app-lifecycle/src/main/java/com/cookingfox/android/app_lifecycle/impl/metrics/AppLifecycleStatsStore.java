@@ -0,0 +1,294 @@
+package com.cookingfox.android.app_lifecycle.impl.metrics;
+
+import com.cookingfox.android.app_lifecycle.impl.listener.PersistentAppLifecycleListener;
+import com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleClock;
+import com.cookingfox.android.app_lifecycle.impl.manager.HandlerAppLifecycleClock;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static com.cookingfox.guava_preconditions.Preconditions.checkNotNull;
+
+/**
+ * Persistent app lifecycle listener that keeps app lifecycle statistics in a small memory-mapped
+ * file with a fixed layout, so they survive process death. Lifecycle events only write to the
+ * mapped memory, which the operating system writes back to the file, so no disk I/O is done on the
+ * main thread after the store is opened.
+ * <p>
+ * A session starts at CREATE and ends at FINISH. When the store is opened and the previous session
+ * did not end, the process was killed or crashed during that session: it is counted as an
+ * interrupted session, and separately if the app was in the foreground at the time, which usually
+ * indicates a crash.
+ * <p>
+ * The lifecycle methods must be called from the main thread, which is the case when this listener
+ * is added to an app lifecycle manager. The getters should also be called from the main thread.
+ */
+public class AppLifecycleStatsStore extends PersistentAppLifecycleListener {
+
+    //----------------------------------------------------------------------------------------------
+    // FILE LAYOUT
+    //----------------------------------------------------------------------------------------------
+    //
+    // offset  size  field
+    //      0     4  magic: identifies the file as an app lifecycle stats file
+    //      4     4  version: the layout version, a file with another version is reset
+    //      8     8  session count
+    //     16     8  interrupted session count
+    //     24     8  interrupted foreground session count
+    //     32     8  foreground count: the number of times the app was started
+    //     40     8  foreground millis: the total time the app was in the foreground
+    //     48     4  session open: 1 between CREATE and FINISH, else 0
+    //     52     4  foreground: 1 between START and STOP, else 0
+    //
+    // All values use the big-endian byte order. Any change to this layout needs a new VERSION.
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Identifies the file format, so a file with a different layout is reset.
+     */
+    protected static final int MAGIC = 0x41504C53;
+
+    /**
+     * The version of the file layout. Increment it when the layout changes, so the statistics of
+     * an older layout are reset instead of read at the wrong offsets.
+     */
+    protected static final int VERSION = 1;
+
+    /**
+     * The offset of the magic number (int).
+     */
+    protected static final int OFFSET_MAGIC = 0;
+
+    /**
+     * The offset of the layout version (int).
+     */
+    protected static final int OFFSET_VERSION = 4;
+
+    /**
+     * The offset of the number of sessions that were started (long).
+     */
+    protected static final int OFFSET_SESSION_COUNT = 8;
+
+    /**
+     * The offset of the number of sessions that were interrupted by process death (long).
+     */
+    protected static final int OFFSET_INTERRUPTED_SESSION_COUNT = 16;
+
+    /**
+     * The offset of the number of sessions that were interrupted while in the foreground (long).
+     */
+    protected static final int OFFSET_INTERRUPTED_FOREGROUND_SESSION_COUNT = 24;
+
+    /**
+     * The offset of the number of times the app was started (long).
+     */
+    protected static final int OFFSET_FOREGROUND_COUNT = 32;
+
+    /**
+     * The offset of the total time in milliseconds the app was in the foreground (long).
+     */
+    protected static final int OFFSET_FOREGROUND_MILLIS = 40;
+
+    /**
+     * The offset of the flag that is set while a session is open (int).
+     */
+    protected static final int OFFSET_SESSION_OPEN = 48;
+
+    /**
+     * The offset of the flag that is set while the app is in the foreground (int).
+     */
+    protected static final int OFFSET_FOREGROUND = 52;
+
+    /**
+     * The size of the file in bytes.
+     */
+    protected static final int SIZE = 56;
+
+    /**
+     * The source of time for the foreground duration.
+     */
+    protected final AppLifecycleClock clock;
+
+    /**
+     * The memory-mapped file, accessed by absolute offsets.
+     */
+    protected final MappedByteBuffer buffer;
+
+    /**
+     * Whether the last session of the previous process did not finish.
+     */
+    protected final boolean lastSessionInterrupted;
+
+    /**
+     * The time the app was started, or -1 if it is not in the foreground.
+     */
+    protected long startedMillis = -1;
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    public AppLifecycleStatsStore(File file) throws IOException {
+        this(file, new HandlerAppLifecycleClock());
+    }
+
+    /**
+     * Opens the store and maps the file, creating it if it does not exist. Since this does disk
+     * I/O, it should be done once, e.g. in {@code Application.onCreate()}.
+     *
+     * @param file  The file to store the statistics in.
+     * @param clock The source of time.
+     * @throws IOException when the file can not be opened or mapped.
+     */
+    public AppLifecycleStatsStore(File file, AppLifecycleClock clock) throws IOException {
+        checkNotNull(file, "File can not be null");
+
+        this.clock = checkNotNull(clock, "Clock can not be null");
+
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+
+        try {
+            // the mapping stays valid after the file is closed
+            buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, SIZE);
+        } finally {
+            randomAccessFile.close();
+        }
+
+        if (buffer.getInt(OFFSET_MAGIC) != MAGIC || buffer.getInt(OFFSET_VERSION) != VERSION) {
+            reset();
+        }
+
+        lastSessionInterrupted = buffer.getInt(OFFSET_SESSION_OPEN) != 0;
+
+        if (lastSessionInterrupted) {
+            increment(OFFSET_INTERRUPTED_SESSION_COUNT, 1);
+
+            if (buffer.getInt(OFFSET_FOREGROUND) != 0) {
+                increment(OFFSET_INTERRUPTED_FOREGROUND_SESSION_COUNT, 1);
+            }
+
+            buffer.putInt(OFFSET_SESSION_OPEN, 0);
+            buffer.putInt(OFFSET_FOREGROUND, 0);
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Writes the mapped memory to the storage device. This is not needed to survive process death,
+     * only to survive a power loss, and does disk I/O.
+     */
+    public void flush() {
+        buffer.force();
+    }
+
+    /**
+     * @return The number of times the app was started.
+     */
+    public long getForegroundCount() {
+        return buffer.getLong(OFFSET_FOREGROUND_COUNT);
+    }
+
+    /**
+     * @return The total time the app was in the foreground in milliseconds, from START to STOP.
+     */
+    public long getForegroundMillis() {
+        return buffer.getLong(OFFSET_FOREGROUND_MILLIS);
+    }
+
+    /**
+     * @return The number of interrupted sessions during which the app was in the foreground when
+     * the process died, which usually indicates a crash.
+     */
+    public long getInterruptedForegroundSessionCount() {
+        return buffer.getLong(OFFSET_INTERRUPTED_FOREGROUND_SESSION_COUNT);
+    }
+
+    /**
+     * @return The number of sessions that never reached FINISH, because the process was killed or
+     * crashed.
+     */
+    public long getInterruptedSessionCount() {
+        return buffer.getLong(OFFSET_INTERRUPTED_SESSION_COUNT);
+    }
+
+    /**
+     * @return The number of sessions, which start at CREATE.
+     */
+    public long getSessionCount() {
+        return buffer.getLong(OFFSET_SESSION_COUNT);
+    }
+
+    /**
+     * Resets all statistics.
+     */
+    public void reset() {
+        for (int offset = 0; offset < SIZE; offset += 4) {
+            buffer.putInt(offset, 0);
+        }
+
+        buffer.putInt(OFFSET_MAGIC, MAGIC);
+        buffer.putInt(OFFSET_VERSION, VERSION);
+    }
+
+    /**
+     * @return Whether the last session of the previous process never reached FINISH.
+     */
+    public boolean wasLastSessionInterrupted() {
+        return lastSessionInterrupted;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // APP LIFECYCLE METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public void onAppCreated(Class<?> origin) {
+        increment(OFFSET_SESSION_COUNT, 1);
+        buffer.putInt(OFFSET_SESSION_OPEN, 1);
+    }
+
+    @Override
+    public void onAppStarted(Class<?> origin) {
+        startedMillis = clock.elapsedRealtime();
+
+        increment(OFFSET_FOREGROUND_COUNT, 1);
+        buffer.putInt(OFFSET_FOREGROUND, 1);
+    }
+
+    @Override
+    public void onAppStopped(Class<?> origin) {
+        if (startedMillis >= 0) {
+            increment(OFFSET_FOREGROUND_MILLIS, clock.elapsedRealtime() - startedMillis);
+            startedMillis = -1;
+        }
+
+        buffer.putInt(OFFSET_FOREGROUND, 0);
+    }
+
+    @Override
+    public void onAppFinished(Class<?> origin) {
+        buffer.putInt(OFFSET_SESSION_OPEN, 0);
+        buffer.putInt(OFFSET_FOREGROUND, 0);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Adds the delta to the counter at the offset.
+     *
+     * @param offset The offset of the counter.
+     * @param delta  The value to add.
+     */
+    protected void increment(int offset, long delta) {
+        buffer.putLong(offset, buffer.getLong(offset) + delta);
+    }
+
+}
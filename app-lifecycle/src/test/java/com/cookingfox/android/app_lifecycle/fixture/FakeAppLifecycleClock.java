@@ -0,0 +1,100 @@
+package com.cookingfox.android.app_lifecycle.fixture;
+
+import com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleClock;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * App lifecycle clock that only advances when told to, and runs the delayed tasks that are due.
+ * Idle tasks are run when no delayed task is due.
+ */
+public class FakeAppLifecycleClock implements AppLifecycleClock {
+
+    private final List<DelayedTask> tasks = new LinkedList<DelayedTask>();
+    private final List<Runnable> idleTasks = new LinkedList<Runnable>();
+    private long uptimeMillis;
+
+    public void advance(long millis) {
+        uptimeMillis += millis;
+
+        while (true) {
+            final DelayedTask due = pollDue();
+
+            if (due != null) {
+                due.task.run();
+            } else if (!idleTasks.isEmpty()) {
+                idleTasks.remove(0).run();
+            } else {
+                return;
+            }
+        }
+    }
+
+    public int getPendingTaskCount() {
+        return tasks.size() + idleTasks.size();
+    }
+
+    @Override
+    public long uptimeMillis() {
+        return uptimeMillis;
+    }
+
+    @Override
+    public long elapsedRealtime() {
+        return uptimeMillis;
+    }
+
+    @Override
+    public void postDelayed(Runnable task, long delayMillis) {
+        tasks.add(new DelayedTask(task, uptimeMillis + delayMillis));
+    }
+
+    @Override
+    public void postWhenIdle(Runnable task) {
+        idleTasks.add(task);
+    }
+
+    @Override
+    public void removeCallbacks(Runnable task) {
+        while (idleTasks.remove(task)) {
+            // remove all
+        }
+
+        final Iterator<DelayedTask> iterator = tasks.iterator();
+
+        while (iterator.hasNext()) {
+            if (iterator.next().task == task) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private DelayedTask pollDue() {
+        DelayedTask first = null;
+
+        for (DelayedTask task : tasks) {
+            if (task.dueMillis <= uptimeMillis && (first == null || task.dueMillis < first.dueMillis)) {
+                first = task;
+            }
+        }
+
+        if (first != null) {
+            tasks.remove(first);
+        }
+
+        return first;
+    }
+
+    private static final class DelayedTask {
+        final Runnable task;
+        final long dueMillis;
+
+        DelayedTask(Runnable task, long dueMillis) {
+            this.task = task;
+            this.dueMillis = dueMillis;
+        }
+    }
+
+}
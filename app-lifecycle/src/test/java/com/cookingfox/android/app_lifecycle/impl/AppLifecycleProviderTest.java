@@ -2,6 +2,7 @@ package com.cookingfox.android.app_lifecycle.impl;
 
 import com.cookingfox.android.app_lifecycle.api.manager.AppLifecycleManager;
 import com.cookingfox.android.app_lifecycle.fixture.FirstApp;
+import com.cookingfox.android.app_lifecycle.impl.manager.ActivityCountingAppLifecycleManager;
 import com.cookingfox.android.app_lifecycle.impl.manager.CrossActivityAppLifecycleManager;
 
 import org.junit.Before;
@@ -11,6 +12,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -98,4 +100,13 @@ public class AppLifecycleProviderTest {
         assertNotNull(manager);
     }
 
+    @Test
+    public void initialize_should_use_manager_that_was_set() throws Exception {
+        final AppLifecycleManager manager = new ActivityCountingAppLifecycleManager();
+
+        AppLifecycleProvider.setManager(manager);
+
+        assertSame(manager, AppLifecycleProvider.initialize(new FirstApp()));
+    }
+
 }
@@ -1,16 +1,24 @@
 package com.cookingfox.android.app_lifecycle.impl.activity;
 
 import android.annotation.TargetApi;
+import android.app.Activity;
 import android.app.Application;
 import android.os.Build;
+import android.os.Bundle;
 
+import com.cookingfox.android.app_lifecycle.api.manager.AppLifecycleManager;
 import com.cookingfox.android.app_lifecycle.fixture.FirstApp;
 import com.cookingfox.android.app_lifecycle.impl.manager.CrossActivityAppLifecycleManager;
 
 import org.junit.Test;
+import org.mockito.InOrder;
 
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 /**
  * Unit tests for {@link AppLifecycleActivityCallbacks}.
@@ -64,4 +72,143 @@ public class AppLifecycleActivityCallbacksTest {
         verify(mockApp).registerActivityLifecycleCallbacks(subject);
     }
 
+    //----------------------------------------------------------------------------------------------
+    // TESTS: configuration change
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void should_not_forward_pause_and_stop_when_changing_configurations() throws Exception {
+        final AppLifecycleManager mockManager = mock(AppLifecycleManager.class);
+        final Activity mockActivity = mock(Activity.class);
+
+        when(mockActivity.isChangingConfigurations()).thenReturn(true);
+
+        AppLifecycleActivityCallbacks subject =
+                new AppLifecycleActivityCallbacks(mock(Application.class), mockManager);
+
+        subject.onActivityPaused(mockActivity);
+        subject.onActivityStopped(mockActivity);
+        subject.onActivityDestroyed(mockActivity);
+
+        verify(mockManager).onConfigurationChange(mockActivity);
+        verifyNoMoreInteractions(mockManager);
+    }
+
+    @Test
+    public void should_forward_pause_and_stop_when_not_changing_configurations() throws Exception {
+        final AppLifecycleManager mockManager = mock(AppLifecycleManager.class);
+        final Activity mockActivity = mock(Activity.class);
+
+        AppLifecycleActivityCallbacks subject =
+                new AppLifecycleActivityCallbacks(mock(Application.class), mockManager);
+
+        subject.onActivityPaused(mockActivity);
+        subject.onActivityStopped(mockActivity);
+        subject.onActivityDestroyed(mockActivity);
+
+        verify(mockManager).onPause(mockActivity);
+        verify(mockManager).onStop(mockActivity);
+        verify(mockManager, never()).onConfigurationChange(mockActivity);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: finish
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void onActivityDestroyed_should_forward_finish_when_finishing() throws Exception {
+        final AppLifecycleManager mockManager = mock(AppLifecycleManager.class);
+        final Activity mockActivity = mock(Activity.class);
+
+        when(mockActivity.isFinishing()).thenReturn(true);
+
+        AppLifecycleActivityCallbacks subject =
+                new AppLifecycleActivityCallbacks(mock(Application.class), mockManager);
+
+        subject.onActivityDestroyed(mockActivity);
+
+        verify(mockManager).onFinish(mockActivity);
+        verifyNoMoreInteractions(mockManager);
+    }
+
+    @Test
+    public void onActivityDestroyed_should_release_when_not_finishing() throws Exception {
+        final AppLifecycleManager mockManager = mock(AppLifecycleManager.class);
+        final Activity mockActivity = mock(Activity.class);
+
+        // e.g. reclaimed by the system while stopped
+        AppLifecycleActivityCallbacks subject =
+                new AppLifecycleActivityCallbacks(mock(Application.class), mockManager);
+
+        subject.onActivityDestroyed(mockActivity);
+
+        verify(mockManager).onRelease(mockActivity);
+        verify(mockManager, never()).onFinish(mockActivity);
+        verifyNoMoreInteractions(mockManager);
+    }
+
+    @Test
+    public void onActivityStopped_should_not_forward_finish() throws Exception {
+        final AppLifecycleManager mockManager = mock(AppLifecycleManager.class);
+        final Activity mockActivity = mock(Activity.class);
+
+        when(mockActivity.isFinishing()).thenReturn(true);
+
+        AppLifecycleActivityCallbacks subject =
+                new AppLifecycleActivityCallbacks(mock(Application.class), mockManager);
+
+        subject.onActivityStopped(mockActivity);
+
+        verify(mockManager).onStop(mockActivity);
+        verifyNoMoreInteractions(mockManager);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: instance state
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void onActivityCreated_should_restore_instance_state_before_create() throws Exception {
+        final AppLifecycleManager mockManager = mock(AppLifecycleManager.class);
+        final Activity mockActivity = mock(Activity.class);
+        final Bundle bundle = new Bundle();
+
+        AppLifecycleActivityCallbacks subject =
+                new AppLifecycleActivityCallbacks(mock(Application.class), mockManager);
+
+        subject.onActivityCreated(mockActivity, bundle);
+
+        final InOrder inOrder = inOrder(mockManager);
+        inOrder.verify(mockManager).onRestoreInstanceState(mockActivity, bundle);
+        inOrder.verify(mockManager).onCreate(mockActivity);
+    }
+
+    @Test
+    public void onActivityCreated_should_not_restore_without_instance_state() throws Exception {
+        final AppLifecycleManager mockManager = mock(AppLifecycleManager.class);
+        final Activity mockActivity = mock(Activity.class);
+
+        AppLifecycleActivityCallbacks subject =
+                new AppLifecycleActivityCallbacks(mock(Application.class), mockManager);
+
+        subject.onActivityCreated(mockActivity, null);
+
+        verify(mockManager).onCreate(mockActivity);
+        verifyNoMoreInteractions(mockManager);
+    }
+
+    @Test
+    public void onActivitySaveInstanceState_should_save_instance_state() throws Exception {
+        final AppLifecycleManager mockManager = mock(AppLifecycleManager.class);
+        final Activity mockActivity = mock(Activity.class);
+        final Bundle bundle = new Bundle();
+
+        AppLifecycleActivityCallbacks subject =
+                new AppLifecycleActivityCallbacks(mock(Application.class), mockManager);
+
+        subject.onActivitySaveInstanceState(mockActivity, bundle);
+
+        verify(mockManager).onSaveInstanceState(mockActivity, bundle);
+    }
+
 }
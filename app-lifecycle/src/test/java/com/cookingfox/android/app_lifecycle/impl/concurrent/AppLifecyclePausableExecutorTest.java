@@ -0,0 +1,175 @@
+package com.cookingfox.android.app_lifecycle.impl.concurrent;
+
+import com.cookingfox.android.app_lifecycle.fixture.FirstActivity;
+import com.cookingfox.android.app_lifecycle.impl.manager.CrossActivityAppLifecycleManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link AppLifecyclePausableExecutor}.
+ */
+public class AppLifecyclePausableExecutorTest {
+
+    private CrossActivityAppLifecycleManager appLifecycleManager;
+    private AppLifecyclePausableExecutor executor;
+    private FirstActivity firstActivity;
+
+    //----------------------------------------------------------------------------------------------
+    // SETUP
+    //----------------------------------------------------------------------------------------------
+
+    @Before
+    public void setUp() throws Exception {
+        appLifecycleManager = new CrossActivityAppLifecycleManager();
+        executor = new AppLifecyclePausableExecutor(1);
+        firstActivity = new FirstActivity();
+
+        appLifecycleManager.addListener(executor);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void should_be_paused_when_created() throws Exception {
+        assertTrue(executor.isPaused());
+    }
+
+    @Test
+    public void should_hold_tasks_until_app_started() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        executor.execute(new CountDownTask(latch));
+
+        assertFalse(latch.await(50, TimeUnit.MILLISECONDS));
+
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void should_hold_tasks_while_app_stopped() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        launchAndStop();
+        executor.execute(new CountDownTask(latch));
+
+        assertFalse(latch.await(50, TimeUnit.MILLISECONDS));
+
+        appLifecycleManager.onStart(firstActivity);
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void should_suspend_periodic_tasks_while_app_stopped() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(3);
+
+        launchAndStop();
+        executor.scheduleWithFixedDelay(new CountDownTask(latch), 0, 1, TimeUnit.MILLISECONDS);
+
+        assertFalse(latch.await(50, TimeUnit.MILLISECONDS));
+        assertTrue(latch.getCount() == 3);
+
+        appLifecycleManager.onStart(firstActivity);
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void should_shut_down_when_app_finished() throws Exception {
+        launchAndStop();
+        appLifecycleManager.onFinish(firstActivity);
+
+        assertTrue(executor.isShutdown());
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void should_cancel_delayed_tasks_when_app_finished() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        launchAndStop();
+        executor.schedule(new CountDownTask(latch), 100, TimeUnit.MILLISECONDS);
+        appLifecycleManager.onFinish(firstActivity);
+
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(1, latch.getCount());
+    }
+
+    @Test
+    public void should_run_queued_tasks_when_app_finished() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(3);
+
+        launchAndStop();
+
+        // the single worker thread waits with the first task, the others stay in the queue
+        executor.execute(new CountDownTask(latch));
+        executor.execute(new CountDownTask(latch));
+        executor.submit(new CountDownTask(latch));
+        appLifecycleManager.onFinish(firstActivity);
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void should_cancel_periodic_tasks_when_app_finished() throws Exception {
+        launchAndStop();
+
+        final ScheduledFuture<?> future = executor.scheduleWithFixedDelay(
+                new CountDownTask(new CountDownLatch(1)), 0, 1, TimeUnit.MILLISECONDS);
+
+        appLifecycleManager.onFinish(firstActivity);
+
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        assertTrue(future.isCancelled());
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPER METHODS
+    //----------------------------------------------------------------------------------------------
+
+    private void launchAndStop() {
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPER CLASS: CountDownTask
+    //----------------------------------------------------------------------------------------------
+
+    private static class CountDownTask implements Runnable {
+        final CountDownLatch latch;
+
+        CountDownTask(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void run() {
+            latch.countDown();
+        }
+    }
+
+}
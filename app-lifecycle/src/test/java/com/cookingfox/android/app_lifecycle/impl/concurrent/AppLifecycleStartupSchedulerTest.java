@@ -0,0 +1,209 @@
+package com.cookingfox.android.app_lifecycle.impl.concurrent;
+
+import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleListenable;
+import com.cookingfox.android.app_lifecycle.fixture.FakeAppLifecycleClock;
+import com.cookingfox.android.app_lifecycle.fixture.FirstActivity;
+import com.cookingfox.android.app_lifecycle.impl.manager.CrossActivityAppLifecycleManager;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link AppLifecycleStartupScheduler}.
+ */
+public class AppLifecycleStartupSchedulerTest {
+
+    private FakeAppLifecycleClock clock;
+    private CrossActivityAppLifecycleManager appLifecycleManager;
+    private AppLifecycleStartupScheduler scheduler;
+    private List<String> called;
+    private FirstActivity firstActivity;
+
+    //----------------------------------------------------------------------------------------------
+    // SETUP
+    //----------------------------------------------------------------------------------------------
+
+    @Before
+    public void setUp() throws Exception {
+        clock = new FakeAppLifecycleClock();
+        appLifecycleManager = new CrossActivityAppLifecycleManager();
+        scheduler = new AppLifecycleStartupScheduler(clock, null);
+        called = new LinkedList<String>();
+        firstActivity = new FirstActivity();
+
+        appLifecycleManager.addListener(scheduler);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void schedule_should_throw_if_task_null() throws Exception {
+        scheduler.schedule(null);
+    }
+
+    @Test
+    public void should_not_run_tasks_before_first_resume() throws Exception {
+        scheduler.schedule(new TestTask("a"));
+
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        clock.advance(0);
+
+        assertTrue(called.isEmpty());
+        assertEquals(1, scheduler.getPendingCount());
+    }
+
+    @Test
+    public void should_run_tasks_after_first_resume_in_priority_order() throws Exception {
+        scheduler.schedule(new TestTask("default1"));
+        scheduler.schedule(new TestTask("low"), AppLifecycleListenable.PRIORITY_LOW);
+        scheduler.schedule(new TestTask("high"), AppLifecycleListenable.PRIORITY_HIGH);
+        scheduler.schedule(new TestTask("default2"));
+
+        launch();
+
+        // released when the main thread is idle
+        assertTrue(called.isEmpty());
+
+        clock.advance(0);
+
+        assertEquals("[high, default1, default2, low]", called.toString());
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    @Test
+    public void should_run_one_task_per_idle_slot() throws Exception {
+        scheduler.schedule(new TestTask("a"));
+        scheduler.schedule(new TestTask("b"));
+
+        launch();
+
+        assertEquals(1, clock.getPendingTaskCount());
+    }
+
+    @Test
+    public void should_run_tasks_after_pending_messages() throws Exception {
+        scheduler.schedule(new TestTask("a"));
+
+        launch();
+        clock.postDelayed(new TestTask("message"), 0);
+        clock.advance(0);
+
+        assertEquals("[message, a]", called.toString());
+    }
+
+    @Test
+    public void should_postpone_pending_tasks_when_stopped() throws Exception {
+        scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                called.add("a");
+                appLifecycleManager.onPause(firstActivity);
+                appLifecycleManager.onStop(firstActivity);
+            }
+        });
+        scheduler.schedule(new TestTask("b"));
+
+        launch();
+        clock.advance(0);
+
+        assertEquals("[a]", called.toString());
+        assertEquals(1, scheduler.getPendingCount());
+        assertEquals(0, clock.getPendingTaskCount());
+
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+        clock.advance(0);
+
+        assertEquals("[a, b]", called.toString());
+    }
+
+    @Test
+    public void should_run_tasks_scheduled_after_resume() throws Exception {
+        launch();
+
+        scheduler.schedule(new TestTask("a"));
+        clock.advance(0);
+
+        assertEquals("[a]", called.toString());
+    }
+
+    @Test
+    public void cancel_should_remove_pending_task() throws Exception {
+        final TestTask task = new TestTask("a");
+
+        scheduler.schedule(task);
+
+        assertTrue(scheduler.cancel(task));
+        assertFalse(scheduler.cancel(task));
+
+        launch();
+        clock.advance(0);
+
+        assertTrue(called.isEmpty());
+    }
+
+    @Test
+    public void should_run_tasks_on_executor() throws Exception {
+        final List<Runnable> submitted = new LinkedList<Runnable>();
+
+        scheduler = new AppLifecycleStartupScheduler(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                submitted.add(command);
+            }
+        });
+        appLifecycleManager.addListener(scheduler);
+        scheduler.schedule(new TestTask("a"));
+        scheduler.schedule(new TestTask("b"));
+
+        launch();
+
+        // one at a time
+        assertEquals(1, submitted.size());
+
+        submitted.remove(0).run();
+        submitted.remove(0).run();
+
+        assertEquals("[a, b]", called.toString());
+        assertTrue(submitted.isEmpty());
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPER METHODS
+    //----------------------------------------------------------------------------------------------
+
+    private void launch() {
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPER CLASS: TestTask
+    //----------------------------------------------------------------------------------------------
+
+    private class TestTask implements Runnable {
+        final String name;
+
+        TestTask(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void run() {
+            called.add(name);
+        }
+    }
+
+}
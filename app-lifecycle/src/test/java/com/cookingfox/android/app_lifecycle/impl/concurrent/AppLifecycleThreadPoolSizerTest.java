@@ -0,0 +1,161 @@
+package com.cookingfox.android.app_lifecycle.impl.concurrent;
+
+import com.cookingfox.android.app_lifecycle.fixture.FirstActivity;
+import com.cookingfox.android.app_lifecycle.impl.manager.CrossActivityAppLifecycleManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link AppLifecycleThreadPoolSizer}.
+ */
+public class AppLifecycleThreadPoolSizerTest {
+
+    private CrossActivityAppLifecycleManager appLifecycleManager;
+    private ThreadPoolExecutor pool;
+    private FirstActivity firstActivity;
+
+    //----------------------------------------------------------------------------------------------
+    // SETUP
+    //----------------------------------------------------------------------------------------------
+
+    @Before
+    public void setUp() throws Exception {
+        appLifecycleManager = new CrossActivityAppLifecycleManager();
+        pool = new ThreadPoolExecutor(4, 4, 10, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>());
+        firstActivity = new FirstActivity();
+
+        appLifecycleManager.addListener(new AppLifecycleThreadPoolSizer(pool, 1));
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        pool.shutdownNow();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_should_throw_if_background_size_negative() throws Exception {
+        new AppLifecycleThreadPoolSizer(pool, -1);
+    }
+
+    @Test
+    public void should_shrink_pool_when_app_stopped() throws Exception {
+        pool.prestartAllCoreThreads();
+
+        stop();
+
+        assertEquals(1, pool.getCorePoolSize());
+
+        // idle surplus threads time out, the background core thread is kept
+        awaitPoolSize(1);
+
+        assertEquals(1, pool.getPoolSize());
+        assertFalse(pool.allowsCoreThreadTimeOut());
+    }
+
+    @Test
+    public void should_terminate_all_threads_if_background_size_zero() throws Exception {
+        appLifecycleManager = new CrossActivityAppLifecycleManager();
+        appLifecycleManager.addListener(new AppLifecycleThreadPoolSizer(pool, 0));
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+        pool.prestartAllCoreThreads();
+
+        stop();
+
+        assertEquals(0, pool.getCorePoolSize());
+
+        awaitPoolSize(0);
+
+        assertEquals(0, pool.getPoolSize());
+    }
+
+    @Test
+    public void should_restore_pool_when_app_started() throws Exception {
+        stop();
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+
+        assertEquals(4, pool.getCorePoolSize());
+        assertFalse(pool.allowsCoreThreadTimeOut());
+    }
+
+    @Test
+    public void should_not_interrupt_running_tasks() throws Exception {
+        final CountDownLatch started = new CountDownLatch(4);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(4);
+        final AtomicBoolean interrupted = new AtomicBoolean();
+
+        for (int i = 0; i < 4; i++) {
+            pool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    started.countDown();
+
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        interrupted.set(true);
+                    }
+
+                    finished.countDown();
+                }
+            });
+        }
+
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        stop();
+        release.countDown();
+
+        assertTrue(finished.await(1, TimeUnit.SECONDS));
+        assertFalse(interrupted.get());
+    }
+
+    @Test
+    public void should_shut_down_pool_when_app_finished() throws Exception {
+        stop();
+        appLifecycleManager.onFinish(firstActivity);
+
+        assertTrue(pool.isShutdown());
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPER METHODS
+    //----------------------------------------------------------------------------------------------
+
+    private void awaitPoolSize(int size) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 1000;
+
+        while (pool.getPoolSize() > size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void stop() {
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.cookingfox.android.app_lifecycle.impl.concurrent;
+
+import org.junit.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for {@link SerialExecutor}.
+ */
+public class SerialExecutorTest {
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void constructor_should_throw_if_delegate_null() throws Exception {
+        new SerialExecutor(null);
+    }
+
+    @Test
+    public void execute_should_run_tasks_one_at_a_time_in_order() throws Exception {
+        final List<Runnable> submitted = new LinkedList<Runnable>();
+        final List<Integer> called = new LinkedList<Integer>();
+        final SerialExecutor executor = new SerialExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                submitted.add(command);
+            }
+        });
+
+        executor.execute(new AddTask(called, 1));
+        executor.execute(new AddTask(called, 2));
+
+        assertEquals(1, submitted.size());
+
+        submitted.remove(0).run();
+        submitted.remove(0).run();
+
+        assertEquals("[1, 2]", called.toString());
+    }
+
+    @Test
+    public void execute_should_not_stall_after_rejection() throws Exception {
+        final boolean[] reject = {true};
+        final List<Integer> called = new LinkedList<Integer>();
+        final SerialExecutor executor = new SerialExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                if (reject[0]) {
+                    throw new RejectedExecutionException();
+                }
+
+                command.run();
+            }
+        });
+
+        try {
+            executor.execute(new AddTask(called, 1));
+            fail("Expected rejection");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+
+        reject[0] = false;
+        executor.execute(new AddTask(called, 2));
+
+        assertEquals("[2]", called.toString());
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPER CLASS: AddTask
+    //----------------------------------------------------------------------------------------------
+
+    private static class AddTask implements Runnable {
+        final List<Integer> called;
+        final int value;
+
+        AddTask(List<Integer> called, int value) {
+            this.called = called;
+            this.value = value;
+        }
+
+        @Override
+        public void run() {
+            called.add(value);
+        }
+    }
+
+}
@@ -0,0 +1,391 @@
+package com.cookingfox.android.app_lifecycle.impl.manager;
+
+import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleListener;
+import com.cookingfox.android.app_lifecycle.fixture.FakeAppLifecycleClock;
+import com.cookingfox.android.app_lifecycle.fixture.FirstActivity;
+import com.cookingfox.android.app_lifecycle.fixture.SecondActivity;
+import com.cookingfox.android.app_lifecycle.impl.listener.DefaultAppLifecycleListener;
+import com.cookingfox.android.app_lifecycle.impl.manager.CrossActivityAppLifecycleManagerTest.TestOriginEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link ActivityCountingAppLifecycleManager}.
+ */
+public class ActivityCountingAppLifecycleManagerTest {
+
+    private ActivityCountingAppLifecycleManager appLifecycleManager;
+    private List<TestOriginEvent> actualEvents;
+
+    //----------------------------------------------------------------------------------------------
+    // SETUP
+    //----------------------------------------------------------------------------------------------
+
+    @Before
+    public void setUp() throws Exception {
+        appLifecycleManager = new ActivityCountingAppLifecycleManager();
+        actualEvents = new LinkedList<TestOriginEvent>();
+
+        appLifecycleManager.addListener(new AppLifecycleListener() {
+            @Override
+            public void onAppCreated(Class<?> origin) {
+                actualEvents.add(new TestOriginEvent(origin, AppLifecycleEvent.CREATE));
+            }
+
+            @Override
+            public void onAppStarted(Class<?> origin) {
+                actualEvents.add(new TestOriginEvent(origin, AppLifecycleEvent.START));
+            }
+
+            @Override
+            public void onAppResumed(Class<?> origin) {
+                actualEvents.add(new TestOriginEvent(origin, AppLifecycleEvent.RESUME));
+            }
+
+            @Override
+            public void onAppPaused(Class<?> origin) {
+                actualEvents.add(new TestOriginEvent(origin, AppLifecycleEvent.PAUSE));
+            }
+
+            @Override
+            public void onAppStopped(Class<?> origin) {
+                actualEvents.add(new TestOriginEvent(origin, AppLifecycleEvent.STOP));
+            }
+
+            @Override
+            public void onAppFinished(Class<?> origin) {
+                actualEvents.add(new TestOriginEvent(origin, AppLifecycleEvent.FINISH));
+            }
+        });
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void onCreate_should_throw_if_origin_null() throws Exception {
+        appLifecycleManager.onCreate(null);
+    }
+
+    @Test
+    public void should_notify_single_activity_lifecycle() throws Exception {
+        final FirstActivity firstActivity = new FirstActivity();
+
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+        appLifecycleManager.onFinish(firstActivity);
+
+        final List<TestOriginEvent> expectedEvents = new LinkedList<TestOriginEvent>();
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.CREATE));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.START));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.RESUME));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.PAUSE));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.STOP));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.FINISH));
+
+        assertEquals(expectedEvents, actualEvents);
+    }
+
+    @Test
+    public void should_not_notify_start_and_stop_when_navigating_between_activities() throws Exception {
+        final FirstActivity firstActivity = new FirstActivity();
+        final SecondActivity secondActivity = new SecondActivity();
+
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+
+        // navigate to second activity
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onCreate(secondActivity);
+        appLifecycleManager.onStart(secondActivity);
+        appLifecycleManager.onResume(secondActivity);
+        appLifecycleManager.onStop(firstActivity);
+
+        // go back to first activity
+        appLifecycleManager.onPause(secondActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+        appLifecycleManager.onStop(secondActivity);
+        appLifecycleManager.onFinish(secondActivity);
+
+        final List<TestOriginEvent> expectedEvents = new LinkedList<TestOriginEvent>();
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.CREATE));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.START));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.RESUME));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.PAUSE));
+        expectedEvents.add(new TestOriginEvent(SecondActivity.class, AppLifecycleEvent.RESUME));
+        expectedEvents.add(new TestOriginEvent(SecondActivity.class, AppLifecycleEvent.PAUSE));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.RESUME));
+
+        assertEquals(expectedEvents, actualEvents);
+    }
+
+    @Test
+    public void should_support_multiple_instances_of_same_activity_class() throws Exception {
+        final FirstActivity bottom = new FirstActivity();
+        final FirstActivity top = new FirstActivity();
+
+        appLifecycleManager.onCreate(bottom);
+        appLifecycleManager.onStart(bottom);
+        appLifecycleManager.onCreate(top);
+        appLifecycleManager.onStart(top);
+        appLifecycleManager.onStop(bottom);
+
+        // top instance finishes: bottom instance is still alive
+        appLifecycleManager.onStart(bottom);
+        appLifecycleManager.onStop(top);
+        appLifecycleManager.onFinish(top);
+
+        assertEquals(2, actualEvents.size());
+
+        // bottom instance finishes: app finishes
+        appLifecycleManager.onStop(bottom);
+        appLifecycleManager.onFinish(bottom);
+
+        final List<TestOriginEvent> expectedEvents = new LinkedList<TestOriginEvent>();
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.CREATE));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.START));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.STOP));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.FINISH));
+
+        assertEquals(expectedEvents, actualEvents);
+    }
+
+    @Test
+    public void should_finish_when_stopped_activity_below_top_is_destroyed() throws Exception {
+        final FirstActivity firstActivity = new FirstActivity();
+        final SecondActivity secondActivity = new SecondActivity();
+
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onCreate(secondActivity);
+        appLifecycleManager.onStart(secondActivity);
+        appLifecycleManager.onResume(secondActivity);
+        appLifecycleManager.onStop(firstActivity);
+
+        // e.g. `finishAffinity()`: the stopped first activity is only destroyed
+        appLifecycleManager.onPause(secondActivity);
+        appLifecycleManager.onStop(secondActivity);
+        appLifecycleManager.onFinish(secondActivity);
+        appLifecycleManager.onFinish(firstActivity);
+
+        assertTrue(appLifecycleManager.activityStack.isEmpty());
+        assertEquals(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.FINISH),
+                actualEvents.get(actualEvents.size() - 1));
+    }
+
+    @Test
+    public void should_not_finish_when_activity_is_released() throws Exception {
+        final FirstActivity firstActivity = new FirstActivity();
+        final FirstActivity recreatedActivity = new FirstActivity();
+
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+
+        // reclaimed by the system in the background, recreated when the app is started again
+        appLifecycleManager.onRelease(firstActivity);
+
+        assertTrue(appLifecycleManager.activityStack.isEmpty());
+
+        appLifecycleManager.onCreate(recreatedActivity);
+        appLifecycleManager.onStart(recreatedActivity);
+
+        final List<TestOriginEvent> expectedEvents = new LinkedList<TestOriginEvent>();
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.CREATE));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.START));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.RESUME));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.PAUSE));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.STOP));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.START));
+
+        assertEquals(expectedEvents, actualEvents);
+    }
+
+    @Test
+    public void should_finish_after_released_activity_is_recreated_and_finished() throws Exception {
+        final FirstActivity firstActivity = new FirstActivity();
+        final SecondActivity secondActivity = new SecondActivity();
+        final FirstActivity recreatedActivity = new FirstActivity();
+
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onCreate(secondActivity);
+        appLifecycleManager.onStart(secondActivity);
+        appLifecycleManager.onResume(secondActivity);
+        appLifecycleManager.onStop(firstActivity);
+
+        // the first activity is reclaimed below the top, the second activity finishes
+        appLifecycleManager.onRelease(firstActivity);
+        appLifecycleManager.onPause(secondActivity);
+        appLifecycleManager.onFinish(secondActivity);
+
+        assertFalse(actualEvents.contains(
+                new TestOriginEvent(SecondActivity.class, AppLifecycleEvent.FINISH)));
+
+        // back to the recreated first activity, which is finished
+        appLifecycleManager.onCreate(recreatedActivity);
+        appLifecycleManager.onStart(recreatedActivity);
+        appLifecycleManager.onResume(recreatedActivity);
+        appLifecycleManager.onStop(secondActivity);
+        appLifecycleManager.onPause(recreatedActivity);
+        appLifecycleManager.onStop(recreatedActivity);
+        appLifecycleManager.onFinish(recreatedActivity);
+
+        assertTrue(appLifecycleManager.activityStack.isEmpty());
+        assertEquals(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.FINISH),
+                actualEvents.get(actualEvents.size() - 1));
+    }
+
+    @Test
+    public void should_ignore_unbalanced_callbacks() throws Exception {
+        final FirstActivity firstActivity = new FirstActivity();
+
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+        appLifecycleManager.onFinish(firstActivity);
+
+        assertTrue(actualEvents.isEmpty());
+
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onCreate(firstActivity);
+
+        assertEquals(1, actualEvents.size());
+    }
+
+    @Test
+    public void should_not_notify_stop_and_start_if_started_within_grace_period() throws Exception {
+        final FakeAppLifecycleClock clock = new FakeAppLifecycleClock();
+        final FirstActivity firstActivity = new FirstActivity();
+
+        appLifecycleManager.setClock(clock);
+        appLifecycleManager.setStopGracePeriod(300, TimeUnit.MILLISECONDS);
+
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+
+        clock.advance(299);
+
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+
+        clock.advance(300);
+
+        final List<TestOriginEvent> expectedEvents = new LinkedList<TestOriginEvent>();
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.CREATE));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.START));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.STOP));
+
+        assertEquals(expectedEvents, actualEvents);
+    }
+
+    @Test
+    public void should_not_notify_recreation_after_configuration_change() throws Exception {
+        final FirstActivity firstActivity = new FirstActivity();
+        final FirstActivity recreatedActivity = new FirstActivity();
+
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+
+        // rotate: pause and stop are not forwarded
+        appLifecycleManager.onConfigurationChange(firstActivity);
+        appLifecycleManager.onCreate(recreatedActivity);
+        appLifecycleManager.onStart(recreatedActivity);
+        appLifecycleManager.onResume(recreatedActivity);
+
+        assertEquals(3, actualEvents.size());
+        assertEquals(1, appLifecycleManager.activityStack.size());
+        assertTrue(appLifecycleManager.recreatingActivities.isEmpty());
+
+        // exit
+        appLifecycleManager.onPause(recreatedActivity);
+        appLifecycleManager.onStop(recreatedActivity);
+        appLifecycleManager.onFinish(recreatedActivity);
+
+        assertEquals(6, actualEvents.size());
+        assertEquals(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.FINISH),
+                actualEvents.get(5));
+    }
+
+    @Test
+    public void setJournal_should_record_unbalanced_callbacks() throws Exception {
+        final AppLifecycleJournal journal = new AppLifecycleJournal(16);
+        final FirstActivity firstActivity = new FirstActivity();
+
+        appLifecycleManager.setJournal(journal);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onCreate(firstActivity);
+
+        final String[] lines = journal.dump().split("\n");
+
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].endsWith(" START " + FirstActivity.class.getName() + " REJECTED"));
+        assertTrue(lines[1].endsWith(" CREATE " + FirstActivity.class.getName() + " ACCEPTED"));
+        assertTrue(lines[2].endsWith(" CREATE " + FirstActivity.class.getName() + " REJECTED"));
+    }
+
+    @Test
+    public void restoreSession_should_only_mark_session_without_activities() throws Exception {
+        final FirstActivity firstActivity = new FirstActivity();
+
+        appLifecycleManager.setSaveInstanceStateEnabled(true);
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.restoreSession(true);
+
+        assertFalse(appLifecycleManager.isRestoredSession());
+
+        appLifecycleManager.onFinish(firstActivity);
+        appLifecycleManager.restoreSession(true);
+
+        assertTrue(appLifecycleManager.isRestoredSession());
+    }
+
+    @Test
+    public void onFinish_should_remove_session_listeners() throws Exception {
+        final FirstActivity firstActivity = new FirstActivity();
+
+        appLifecycleManager.addListener(new DefaultAppLifecycleListener());
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onFinish(firstActivity);
+
+        assertTrue(appLifecycleManager.listeners.isEmpty());
+        assertEquals(1, appLifecycleManager.getSessionGeneration());
+    }
+
+    @Test
+    public void dispose_should_reset_state() throws Exception {
+        final FirstActivity firstActivity = new FirstActivity();
+
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.dispose();
+
+        assertTrue(appLifecycleManager.activityStack.isEmpty());
+        assertEquals(0, appLifecycleManager.startedCount);
+        assertEquals(0, appLifecycleManager.resumedCount);
+    }
+
+}
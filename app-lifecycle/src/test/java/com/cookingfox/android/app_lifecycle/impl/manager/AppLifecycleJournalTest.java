@@ -0,0 +1,88 @@
+package com.cookingfox.android.app_lifecycle.impl.manager;
+
+import com.cookingfox.android.app_lifecycle.fixture.FirstActivity;
+import com.cookingfox.android.app_lifecycle.fixture.SecondActivity;
+
+import org.junit.Test;
+
+import static com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleJournal.ACCEPTED;
+import static com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleJournal.CALL_CONFIGURATION_CHANGE;
+import static com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleJournal.CALL_RELEASE;
+import static com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleJournal.IGNORED;
+import static com.cookingfox.android.app_lifecycle.impl.manager.AppLifecycleJournal.REJECTED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link AppLifecycleJournal}.
+ */
+public class AppLifecycleJournalTest {
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_should_throw_if_capacity_not_positive() throws Exception {
+        new AppLifecycleJournal(0);
+    }
+
+    @Test
+    public void dump_should_contain_records_in_order() throws Exception {
+        final AppLifecycleJournal journal = new AppLifecycleJournal(4);
+
+        journal.record(AppLifecycleEvent.CREATE, FirstActivity.class, ACCEPTED);
+        journal.record(AppLifecycleEvent.PAUSE, SecondActivity.class, REJECTED);
+        journal.record(CALL_CONFIGURATION_CHANGE, FirstActivity.class, IGNORED);
+        journal.record(CALL_RELEASE, SecondActivity.class, ACCEPTED);
+
+        final String[] lines = journal.dump().split("\n");
+
+        assertEquals(4, journal.size());
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].endsWith(" CREATE " + FirstActivity.class.getName() + " ACCEPTED"));
+        assertTrue(lines[1].endsWith(" PAUSE " + SecondActivity.class.getName() + " REJECTED"));
+        assertTrue(lines[2].endsWith(" CONFIGURATION_CHANGE " + FirstActivity.class.getName() + " IGNORED"));
+        assertTrue(lines[3].endsWith(" RELEASE " + SecondActivity.class.getName() + " ACCEPTED"));
+    }
+
+    @Test
+    public void record_should_overwrite_oldest_record_when_full() throws Exception {
+        final AppLifecycleJournal journal = new AppLifecycleJournal(2);
+
+        journal.record(AppLifecycleEvent.CREATE, FirstActivity.class, ACCEPTED);
+        journal.record(AppLifecycleEvent.START, FirstActivity.class, ACCEPTED);
+        journal.record(AppLifecycleEvent.RESUME, FirstActivity.class, ACCEPTED);
+
+        final String[] lines = journal.dump().split("\n");
+
+        assertEquals(2, journal.size());
+        assertEquals("(1 older records overwritten)", lines[0]);
+        assertTrue(lines[1].contains(" START "));
+        assertTrue(lines[2].contains(" RESUME "));
+    }
+
+    @Test
+    public void record_should_intern_origin_classes() throws Exception {
+        final AppLifecycleJournal journal = new AppLifecycleJournal(4);
+
+        journal.record(AppLifecycleEvent.CREATE, FirstActivity.class, ACCEPTED);
+        journal.record(AppLifecycleEvent.CREATE, SecondActivity.class, ACCEPTED);
+        journal.record(AppLifecycleEvent.START, FirstActivity.class, ACCEPTED);
+
+        assertEquals(2, journal.originCount);
+        assertEquals(journal.originIds[0], journal.originIds[2]);
+    }
+
+    @Test
+    public void clear_should_remove_records() throws Exception {
+        final AppLifecycleJournal journal = new AppLifecycleJournal(4);
+
+        journal.record(AppLifecycleEvent.CREATE, FirstActivity.class, ACCEPTED);
+        journal.clear();
+
+        assertEquals(0, journal.size());
+        assertEquals("", journal.dump());
+    }
+
+}
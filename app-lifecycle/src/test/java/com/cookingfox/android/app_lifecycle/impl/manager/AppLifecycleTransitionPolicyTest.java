@@ -0,0 +1,87 @@
+package com.cookingfox.android.app_lifecycle.impl.manager;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link AppLifecycleTransitionPolicy}.
+ */
+public class AppLifecycleTransitionPolicyTest {
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: DEFAULT
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void default_should_allow_create_initially() throws Exception {
+        final AppLifecycleTransitionPolicy policy = AppLifecycleTransitionPolicy.DEFAULT;
+
+        assertTrue(policy.isAllowed(AppLifecycleEvent.CREATE, null));
+
+        for (AppLifecycleEvent lastEvent : AppLifecycleEvent.values()) {
+            assertFalse(policy.isAllowed(AppLifecycleEvent.CREATE, lastEvent));
+        }
+    }
+
+    @Test
+    public void default_should_contain_default_transitions() throws Exception {
+        final AppLifecycleTransitionPolicy policy = AppLifecycleTransitionPolicy.DEFAULT;
+
+        assertTrue(policy.isAllowed(AppLifecycleEvent.START, AppLifecycleEvent.CREATE));
+        assertTrue(policy.isAllowed(AppLifecycleEvent.START, AppLifecycleEvent.PAUSE));
+        assertTrue(policy.isAllowed(AppLifecycleEvent.START, AppLifecycleEvent.STOP));
+        assertTrue(policy.isAllowed(AppLifecycleEvent.RESUME, AppLifecycleEvent.START));
+        assertTrue(policy.isAllowed(AppLifecycleEvent.RESUME, AppLifecycleEvent.PAUSE));
+        assertTrue(policy.isAllowed(AppLifecycleEvent.PAUSE, AppLifecycleEvent.RESUME));
+        assertTrue(policy.isAllowed(AppLifecycleEvent.STOP, AppLifecycleEvent.PAUSE));
+        assertTrue(policy.isAllowed(AppLifecycleEvent.FINISH, AppLifecycleEvent.STOP));
+
+        assertFalse(policy.isAllowed(AppLifecycleEvent.START, null));
+        assertFalse(policy.isAllowed(AppLifecycleEvent.PAUSE, AppLifecycleEvent.START));
+        assertFalse(policy.isAllowed(AppLifecycleEvent.FINISH, AppLifecycleEvent.PAUSE));
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: allow
+    //----------------------------------------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void allow_should_throw_if_event_null() throws Exception {
+        AppLifecycleTransitionPolicy.DEFAULT.allow(null, AppLifecycleEvent.CREATE);
+    }
+
+    @Test
+    public void allow_should_return_new_policy() throws Exception {
+        final AppLifecycleTransitionPolicy policy = AppLifecycleTransitionPolicy.DEFAULT
+                .allow(AppLifecycleEvent.STOP, AppLifecycleEvent.RESUME);
+
+        assertNotSame(AppLifecycleTransitionPolicy.DEFAULT, policy);
+        assertTrue(policy.isAllowed(AppLifecycleEvent.STOP, AppLifecycleEvent.RESUME));
+        assertTrue(policy.isAllowed(AppLifecycleEvent.STOP, AppLifecycleEvent.PAUSE));
+        assertFalse(AppLifecycleTransitionPolicy.DEFAULT.isAllowed(AppLifecycleEvent.STOP, AppLifecycleEvent.RESUME));
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: disallow
+    //----------------------------------------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void disallow_should_throw_if_event_null() throws Exception {
+        AppLifecycleTransitionPolicy.DEFAULT.disallow(null, AppLifecycleEvent.CREATE);
+    }
+
+    @Test
+    public void disallow_should_return_new_policy() throws Exception {
+        final AppLifecycleTransitionPolicy policy = AppLifecycleTransitionPolicy.DEFAULT
+                .disallow(AppLifecycleEvent.START, AppLifecycleEvent.PAUSE);
+
+        assertNotSame(AppLifecycleTransitionPolicy.DEFAULT, policy);
+        assertFalse(policy.isAllowed(AppLifecycleEvent.START, AppLifecycleEvent.PAUSE));
+        assertTrue(policy.isAllowed(AppLifecycleEvent.START, AppLifecycleEvent.STOP));
+        assertTrue(AppLifecycleTransitionPolicy.DEFAULT.isAllowed(AppLifecycleEvent.START, AppLifecycleEvent.PAUSE));
+    }
+
+}
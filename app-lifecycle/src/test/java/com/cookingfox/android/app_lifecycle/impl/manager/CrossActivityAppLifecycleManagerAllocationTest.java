@@ -0,0 +1,233 @@
+package com.cookingfox.android.app_lifecycle.impl.manager;
+
+import com.cookingfox.android.app_lifecycle.fixture.FirstActivity;
+import com.cookingfox.android.app_lifecycle.fixture.SecondActivity;
+import com.cookingfox.android.app_lifecycle.impl.listener.DefaultAppLifecycleListener;
+import com.cookingfox.android.app_lifecycle.impl.listener.PersistentAppLifecycleListener;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Allocation regression tests for the event methods of {@link CrossActivityAppLifecycleManager}.
+ * Measures the bytes allocated by the current thread using
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}, so the tests are skipped
+ * on JVMs that do not support it.
+ */
+public class CrossActivityAppLifecycleManagerAllocationTest {
+
+    /**
+     * Number of event cycles per measurement.
+     */
+    private static final int NUM_CYCLES = 10000;
+
+    /**
+     * Number of listeners that are notified of every event.
+     */
+    private static final int NUM_LISTENERS = 100;
+
+    /**
+     * Bytes the allocation measurement itself may allocate.
+     */
+    private static final long MEASUREMENT_TOLERANCE = 1024;
+
+    private com.sun.management.ThreadMXBean threadMXBean;
+    private CrossActivityAppLifecycleManager appLifecycleManager;
+    private FirstActivity firstActivity;
+    private SecondActivity secondActivity;
+    private CountingListener persistentListener;
+
+    //----------------------------------------------------------------------------------------------
+    // SETUP
+    //----------------------------------------------------------------------------------------------
+
+    @Before
+    public void setUp() throws Exception {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+
+        threadMXBean = (com.sun.management.ThreadMXBean) bean;
+
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        appLifecycleManager = new CrossActivityAppLifecycleManager();
+        firstActivity = new FirstActivity();
+        secondActivity = new SecondActivity();
+        persistentListener = new CountingListener();
+
+        appLifecycleManager.addListener(persistentListener);
+
+        for (int i = 1; i < NUM_LISTENERS; i++) {
+            appLifecycleManager.addListener(new PersistentAppLifecycleListener());
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void background_foreground_cycle_should_not_allocate() throws Exception {
+        appLifecycleManager.onCreate(firstActivity);
+
+        final Runnable cycle = new Runnable() {
+            @Override
+            public void run() {
+                appLifecycleManager.onStart(firstActivity);
+                appLifecycleManager.onResume(firstActivity);
+                appLifecycleManager.onPause(firstActivity);
+                appLifecycleManager.onStop(firstActivity);
+            }
+        };
+
+        assertNoAllocation(cycle);
+        assertEquals(1 + 4 * 2 * NUM_CYCLES, persistentListener.count);
+    }
+
+    @Test
+    public void navigating_between_activities_should_not_allocate() throws Exception {
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+
+        final Runnable cycle = new Runnable() {
+            @Override
+            public void run() {
+                appLifecycleManager.onPause(firstActivity);
+                appLifecycleManager.onCreate(secondActivity);
+                appLifecycleManager.onStart(secondActivity);
+                appLifecycleManager.onResume(secondActivity);
+                appLifecycleManager.onStop(firstActivity);
+
+                appLifecycleManager.onPause(secondActivity);
+                appLifecycleManager.onStart(firstActivity);
+                appLifecycleManager.onResume(firstActivity);
+                appLifecycleManager.onStop(secondActivity);
+                appLifecycleManager.onFinish(secondActivity);
+            }
+        };
+
+        assertNoAllocation(cycle);
+        assertEquals(3 + 4 * 2 * NUM_CYCLES, persistentListener.count);
+    }
+
+    @Test
+    public void create_finish_cycle_should_not_allocate() throws Exception {
+        final Runnable cycle = new Runnable() {
+            @Override
+            public void run() {
+                appLifecycleManager.onCreate(firstActivity);
+                appLifecycleManager.onStart(firstActivity);
+                appLifecycleManager.onResume(firstActivity);
+                appLifecycleManager.onPause(firstActivity);
+                appLifecycleManager.onStop(firstActivity);
+                appLifecycleManager.onFinish(firstActivity);
+            }
+        };
+
+        assertNoAllocation(cycle);
+        assertEquals(6 * 2 * NUM_CYCLES, persistentListener.count);
+    }
+
+    @Test
+    public void navigating_with_journal_should_not_allocate() throws Exception {
+        appLifecycleManager.setJournal(new AppLifecycleJournal(256));
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+
+        final Runnable cycle = new Runnable() {
+            @Override
+            public void run() {
+                appLifecycleManager.onPause(firstActivity);
+                appLifecycleManager.onCreate(secondActivity);
+                appLifecycleManager.onStart(secondActivity);
+                appLifecycleManager.onResume(secondActivity);
+                appLifecycleManager.onStop(firstActivity);
+
+                appLifecycleManager.onPause(secondActivity);
+                appLifecycleManager.onStart(firstActivity);
+                appLifecycleManager.onResume(firstActivity);
+                appLifecycleManager.onStop(secondActivity);
+                appLifecycleManager.onFinish(secondActivity);
+            }
+        };
+
+        assertNoAllocation(cycle);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPER METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Runs the cycle to warm up, then measures the bytes allocated by running it again.
+     */
+    private void assertNoAllocation(Runnable cycle) {
+        final long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < NUM_CYCLES; i++) {
+            cycle.run();
+        }
+
+        final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < NUM_CYCLES; i++) {
+            cycle.run();
+        }
+
+        final long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        if (allocated > MEASUREMENT_TOLERANCE) {
+            throw new AssertionError("Expected no allocation, but " + allocated + " bytes were " +
+                    "allocated in " + NUM_CYCLES + " cycles");
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPER CLASS: CountingListener
+    //----------------------------------------------------------------------------------------------
+
+    static final class CountingListener extends PersistentAppLifecycleListener {
+        int count;
+
+        @Override
+        public void onAppCreated(Class<?> origin) {
+            count++;
+        }
+
+        @Override
+        public void onAppStarted(Class<?> origin) {
+            count++;
+        }
+
+        @Override
+        public void onAppResumed(Class<?> origin) {
+            count++;
+        }
+
+        @Override
+        public void onAppPaused(Class<?> origin) {
+            count++;
+        }
+
+        @Override
+        public void onAppStopped(Class<?> origin) {
+            count++;
+        }
+
+        @Override
+        public void onAppFinished(Class<?> origin) {
+            count++;
+        }
+    }
+
+}
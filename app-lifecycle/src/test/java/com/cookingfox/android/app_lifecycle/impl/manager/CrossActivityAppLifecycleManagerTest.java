@@ -5,7 +5,13 @@ import android.app.Activity;
 import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleEventListener;
 import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleListenable;
 import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleListener;
+import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleListenerFactory;
+import com.cookingfox.android.app_lifecycle.api.listener.AsyncAppLifecycleEventListener;
 import com.cookingfox.android.app_lifecycle.api.listener.OnAppCreated;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppFinished;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppResumed;
+import com.cookingfox.android.app_lifecycle.api.listener.OnAppStopped;
+import com.cookingfox.android.app_lifecycle.fixture.FakeAppLifecycleClock;
 import com.cookingfox.android.app_lifecycle.fixture.FirstActivity;
 import com.cookingfox.android.app_lifecycle.fixture.SecondActivity;
 import com.cookingfox.android.app_lifecycle.impl.listener.DefaultAppLifecycleListener;
@@ -14,8 +20,14 @@ import com.cookingfox.android.app_lifecycle.impl.listener.PersistentAppLifecycle
 import org.junit.Before;
 import org.junit.Test;
 
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.cookingfox.guava_preconditions.Preconditions.checkNotNull;
@@ -25,6 +37,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Unit tests for {@link CrossActivityAppLifecycleManager}.
@@ -129,69 +142,937 @@ public class CrossActivityAppLifecycleManagerTest {
         appLifecycleManager.onCreate(new FirstActivity());
     }
 
+    @Test
+    public void addListener_should_compare_listeners_by_identity() throws Exception {
+        class EqualListener extends DefaultAppLifecycleListener {
+            @Override
+            public boolean equals(Object o) {
+                return o instanceof EqualListener;
+            }
+
+            @Override
+            public int hashCode() {
+                return 1;
+            }
+        }
+
+        appLifecycleManager.addListener(new EqualListener());
+        appLifecycleManager.addListener(new EqualListener());
+
+        assertEquals(2, appLifecycleManager.listeners.size());
+    }
+
+    @Test
+    public void addListener_should_index_listener_by_implemented_events() throws Exception {
+        final OnAppStopped listener = new OnAppStopped() {
+            @Override
+            public void onAppStopped(Class<?> origin) {
+            }
+        };
+
+        appLifecycleManager.addListener(listener);
+
+        for (AppLifecycleEvent event : AppLifecycleEvent.values()) {
+            assertEquals(event == AppLifecycleEvent.STOP,
+                    hasEntry(event, listener));
+        }
+    }
+
+    @Test
+    public void addListener_should_notify_high_priority_listener_first_on_setup_and_last_on_teardown() throws Exception {
+        final List<String> calls = new LinkedList<String>();
+
+        appLifecycleManager.addListener(new TestNamedListener("default", calls));
+        appLifecycleManager.addListener(new TestNamedListener("high", calls),
+                AppLifecycleListenable.PRIORITY_HIGH);
+        appLifecycleManager.addListener(new TestNamedListener("low", calls),
+                AppLifecycleListenable.PRIORITY_LOW);
+
+        final FirstActivity activity = new FirstActivity();
+
+        appLifecycleManager.onCreate(activity);
+
+        assertEquals(Arrays.asList("high", "default", "low"), calls);
+
+        calls.clear();
+
+        appLifecycleManager.onStart(activity);
+        appLifecycleManager.onResume(activity);
+        appLifecycleManager.onPause(activity);
+        appLifecycleManager.onStop(activity);
+        appLifecycleManager.onFinish(activity);
+
+        assertEquals(Arrays.asList("low", "default", "high"), calls);
+    }
+
+    @Test
+    public void addListener_should_keep_reverse_registration_order_for_same_priority() throws Exception {
+        final List<String> calls = new LinkedList<String>();
+
+        appLifecycleManager.addListener(new TestNamedListener("first", calls), 5);
+        appLifecycleManager.addListener(new TestNamedListener("other", calls));
+        appLifecycleManager.addListener(new TestNamedListener("second", calls), 5);
+
+        final TestNamedListener removed = new TestNamedListener("removed", calls);
+
+        appLifecycleManager.addListener(removed, 5);
+        appLifecycleManager.removeListener(removed);
+
+        appLifecycleManager.onCreate(new FirstActivity());
+
+        assertEquals(Arrays.asList("second", "first", "other"), calls);
+    }
+
+    @Test
+    public void addListener_should_support_concurrent_registration() throws Exception {
+        final int numThreads = 4;
+        final int numListenersPerThread = 250;
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final List<Thread> threads = new LinkedList<Thread>();
+
+        for (int i = 0; i < numThreads; i++) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+
+                    for (int j = 0; j < numListenersPerThread; j++) {
+                        final DefaultAppLifecycleListener listener = new DefaultAppLifecycleListener();
+
+                        appLifecycleManager.addListener(listener);
+                        appLifecycleManager.addListener(new DefaultAppLifecycleListener());
+                        appLifecycleManager.removeListener(listener);
+                    }
+                }
+            });
+
+            thread.start();
+            threads.add(thread);
+        }
+
+        startLatch.countDown();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        final int expected = numThreads * numListenersPerThread;
+
+        assertEquals(expected, appLifecycleManager.listeners.size());
+
+        for (AppLifecycleEvent event : AppLifecycleEvent.values()) {
+            assertEquals(expected, appLifecycleManager.listeners.getEntries(event).length);
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: addListeners
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void addListeners_should_add_batch_in_registration_order() throws Exception {
+        final List<String> calls = new LinkedList<String>();
+        final TestNamedListener first = new TestNamedListener("first", calls);
+
+        appLifecycleManager.addListener(first);
+        appLifecycleManager.addListeners(Arrays.asList(
+                new TestNamedListener("second", calls),
+                new TestNamedListener("third", calls)));
+
+        assertEquals(3, appLifecycleManager.listeners.size());
+
+        appLifecycleManager.onCreate(new FirstActivity());
+
+        assertEquals(Arrays.asList("third", "second", "first"), calls);
+    }
+
+    @Test
+    public void addListeners_should_not_add_any_listener_if_one_was_already_added() throws Exception {
+        final DefaultAppLifecycleListener added = new DefaultAppLifecycleListener();
+
+        appLifecycleManager.addListener(added);
+
+        try {
+            appLifecycleManager.addListeners(Arrays.asList(new DefaultAppLifecycleListener(), added));
+            fail("Expected exception");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        assertEquals(1, appLifecycleManager.listeners.size());
+        assertEquals(1, appLifecycleManager.listeners.getEntries(AppLifecycleEvent.CREATE).length);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addListeners_should_throw_if_batch_contains_duplicate() throws Exception {
+        final DefaultAppLifecycleListener listener = new DefaultAppLifecycleListener();
+
+        appLifecycleManager.addListeners(Arrays.asList(listener, listener));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void addListeners_should_throw_if_batch_contains_null() throws Exception {
+        appLifecycleManager.addListeners(Arrays.asList(new DefaultAppLifecycleListener(), null));
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: addWeakListener
+    //----------------------------------------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void addWeakListener_should_throw_if_null() throws Exception {
+        appLifecycleManager.addWeakListener(null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addWeakListener_should_throw_if_already_added() throws Exception {
+        final AppLifecycleListener listener = new DefaultAppLifecycleListener();
+
+        appLifecycleManager.addListener(listener);
+        appLifecycleManager.addWeakListener(listener);
+    }
+
+    @Test
+    public void addWeakListener_should_notify_and_remove_listener() throws Exception {
+        final AtomicInteger counter = new AtomicInteger();
+        final OnAppCreated listener = new OnAppCreated() {
+            @Override
+            public void onAppCreated(Class<?> origin) {
+                counter.incrementAndGet();
+            }
+        };
+
+        appLifecycleManager.addWeakListener(listener);
+        appLifecycleManager.onCreate(new FirstActivity());
+
+        assertEquals(1, counter.get());
+
+        appLifecycleManager.removeListener(listener);
+
+        assertTrue(appLifecycleManager.listeners.isEmpty());
+    }
+
+    @Test
+    public void addWeakListener_should_purge_collected_listener_on_dispatch() throws Exception {
+        final WeakReference<AppLifecycleEventListener> reference = addCollectableListener();
+
+        awaitCollected(reference);
+
+        final long deadline = System.currentTimeMillis() + 5000;
+
+        // the reference is enqueued asynchronously after it was cleared
+        while (!appLifecycleManager.listeners.isEmpty() && System.currentTimeMillis() < deadline) {
+            appLifecycleManager.notifyListeners(AppLifecycleEvent.CREATE);
+            Thread.sleep(10);
+        }
+
+        assertTrue(appLifecycleManager.listeners.isEmpty());
+        assertEquals(0, appLifecycleManager.listeners.getEntries(AppLifecycleEvent.CREATE).length);
+    }
+
+    @Test
+    public void purgeStaleListeners_should_return_number_of_removed_listeners() throws Exception {
+        final DefaultAppLifecycleListener strongListener = new DefaultAppLifecycleListener();
+        final WeakReference<AppLifecycleEventListener> first = addCollectableListener();
+        final WeakReference<AppLifecycleEventListener> second = addCollectableListener();
+
+        appLifecycleManager.addWeakListener(strongListener);
+
+        awaitCollected(first);
+        awaitCollected(second);
+
+        final long deadline = System.currentTimeMillis() + 5000;
+        int purged = 0;
+
+        while (purged < 2 && System.currentTimeMillis() < deadline) {
+            purged += appLifecycleManager.purgeStaleListeners();
+            Thread.sleep(10);
+        }
+
+        assertEquals(2, purged);
+        assertEquals(0, appLifecycleManager.purgeStaleListeners());
+        assertEquals(1, appLifecycleManager.listeners.size());
+        assertTrue(hasEntry(AppLifecycleEvent.CREATE, strongListener));
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: addLazyListener
+    //----------------------------------------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void addLazyListener_should_throw_if_factory_null() throws Exception {
+        appLifecycleManager.addLazyListener(null, OnAppStopped.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addLazyListener_should_throw_if_no_events() throws Exception {
+        appLifecycleManager.addLazyListener(new TestListenerFactory());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addLazyListener_should_throw_if_not_event_interface() throws Exception {
+        appLifecycleManager.addLazyListener(new TestListenerFactory(), AppLifecycleListener.class);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addLazyListener_should_throw_if_already_added() throws Exception {
+        final TestListenerFactory factory = new TestListenerFactory();
+
+        appLifecycleManager.addLazyListener(factory, OnAppStopped.class);
+        appLifecycleManager.addLazyListener(factory, OnAppStopped.class);
+    }
+
+    @Test
+    public void addLazyListener_should_create_listener_on_first_event() throws Exception {
+        final TestListenerFactory factory = new TestListenerFactory();
+        final FirstActivity firstActivity = new FirstActivity();
+
+        appLifecycleManager.addLazyListener(factory, OnAppResumed.class, OnAppStopped.class);
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+
+        assertEquals(0, factory.created);
+
+        appLifecycleManager.onResume(firstActivity);
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+
+        assertEquals(1, factory.created);
+        assertEquals(2, factory.listener.resumed);
+        assertEquals(1, factory.listener.stopped);
+    }
+
+    @Test
+    public void addLazyListener_should_not_notify_events_that_were_not_added() throws Exception {
+        final TestListenerFactory factory = new TestListenerFactory();
+        final FirstActivity firstActivity = new FirstActivity();
+
+        appLifecycleManager.addLazyListener(factory, OnAppStopped.class);
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+
+        assertEquals(0, factory.created);
+    }
+
+    @Test
+    public void removeListener_should_remove_lazy_listener_factory() throws Exception {
+        final TestListenerFactory factory = new TestListenerFactory();
+        final FirstActivity firstActivity = new FirstActivity();
+
+        appLifecycleManager.addLazyListener(factory, OnAppCreated.class);
+        appLifecycleManager.removeListener(factory);
+        appLifecycleManager.onCreate(firstActivity);
+
+        assertEquals(0, factory.created);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addLazyListener_should_throw_if_created_listener_does_not_implement_event() throws Exception {
+        appLifecycleManager.addLazyListener(new AppLifecycleListenerFactory() {
+            @Override
+            public AppLifecycleEventListener create() {
+                return new OnAppFinished() {
+                    @Override
+                    public void onAppFinished(Class<?> origin) {
+                    }
+                };
+            }
+        }, OnAppCreated.class);
+
+        appLifecycleManager.onCreate(new FirstActivity());
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: removeListener
+    //----------------------------------------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void removeListener_should_throw_if_null() throws Exception {
+        appLifecycleManager.removeListener(null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void removeListener_should_throw_if_not_added() throws Exception {
+        appLifecycleManager.removeListener(new DefaultAppLifecycleListener());
+    }
+
+    @Test
+    public void removeListener_should_remove_listener() throws Exception {
+        final DefaultAppLifecycleListener listener = new DefaultAppLifecycleListener();
+
+        appLifecycleManager.addListener(listener);
+
+        assertTrue(appLifecycleManager.listeners.contains(listener));
+
+        appLifecycleManager.removeListener(listener);
+
+        assertFalse(appLifecycleManager.listeners.contains(listener));
+
+        for (AppLifecycleEvent event : AppLifecycleEvent.values()) {
+            assertFalse(hasEntry(event, listener));
+        }
+    }
+
+    @Test
+    public void removeListener_should_not_remove_persistent_listener() throws Exception {
+        final PersistentAppLifecycleListener listener = new PersistentAppLifecycleListener();
+
+        appLifecycleManager.addListener(listener);
+
+        assertTrue(appLifecycleManager.listeners.contains(listener));
+
+        appLifecycleManager.removeListener(listener);
+
+        assertTrue(appLifecycleManager.listeners.contains(listener));
+    }
+
+    @Test
+    public void removeListener_should_return_manager() throws Exception {
+        AppLifecycleListenable listenable = appLifecycleManager.addListener(new DefaultAppLifecycleListener());
+
+        assertSame(appLifecycleManager, listenable);
+    }
+
+    @Test
+    public void removeListener_should_not_throw_concurrent_modification_exception() throws Exception {
+        final DefaultAppLifecycleListener firstListener = new DefaultAppLifecycleListener();
+        final DefaultAppLifecycleListener lastListener = new DefaultAppLifecycleListener();
+
+        appLifecycleManager.addListener(firstListener);
+        appLifecycleManager.addListener(new DefaultAppLifecycleListener() {
+            @Override
+            public void onAppCreated(Class<?> origin) {
+                appLifecycleManager.removeListener(firstListener);
+                appLifecycleManager.removeListener(lastListener);
+            }
+        });
+        appLifecycleManager.addListener(lastListener);
+
+        appLifecycleManager.onCreate(new FirstActivity());
+    }
+
+    @Test
+    public void removeListener_should_not_call_listener_removed_during_dispatch() throws Exception {
+        final AtomicInteger counter = new AtomicInteger(0);
+        final DefaultAppLifecycleListener firstListener = new DefaultAppLifecycleListener() {
+            @Override
+            public void onAppCreated(Class<?> origin) {
+                counter.incrementAndGet();
+            }
+        };
+
+        appLifecycleManager.addListener(firstListener);
+        appLifecycleManager.addListener(new DefaultAppLifecycleListener() {
+            @Override
+            public void onAppCreated(Class<?> origin) {
+                appLifecycleManager.removeListener(firstListener);
+            }
+        });
+
+        appLifecycleManager.onCreate(new FirstActivity());
+
+        assertEquals(0, counter.get());
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: removeListeners
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void removeListeners_should_remove_batch_except_persistent_listeners() throws Exception {
+        final DefaultAppLifecycleListener first = new DefaultAppLifecycleListener();
+        final DefaultAppLifecycleListener second = new DefaultAppLifecycleListener();
+        final DefaultAppLifecycleListener kept = new DefaultAppLifecycleListener();
+        final PersistentAppLifecycleListener persistent = new PersistentAppLifecycleListener();
+
+        appLifecycleManager.addListeners(Arrays.asList(first, kept, second, persistent));
+        appLifecycleManager.removeListeners(Arrays.asList(first, second, persistent));
+
+        assertEquals(2, appLifecycleManager.listeners.size());
+        assertTrue(hasEntry(AppLifecycleEvent.CREATE, kept));
+        assertTrue(hasEntry(AppLifecycleEvent.CREATE, persistent));
+        assertFalse(hasEntry(AppLifecycleEvent.CREATE, first));
+        assertFalse(hasEntry(AppLifecycleEvent.CREATE, second));
+    }
+
+    @Test
+    public void removeListeners_should_not_remove_any_listener_if_one_was_not_added() throws Exception {
+        final DefaultAppLifecycleListener added = new DefaultAppLifecycleListener();
+
+        appLifecycleManager.addListener(added);
+
+        try {
+            appLifecycleManager.removeListeners(Arrays.asList(added, new DefaultAppLifecycleListener()));
+            fail("Expected exception");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        assertTrue(hasEntry(AppLifecycleEvent.CREATE, added));
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: setTransitionPolicy
+    //----------------------------------------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void setTransitionPolicy_should_throw_if_null() throws Exception {
+        appLifecycleManager.setTransitionPolicy(null);
+    }
+
+    @Test
+    public void setTransitionPolicy_should_validate_events_with_policy() throws Exception {
+        final AtomicInteger counter = new AtomicInteger(0);
+        final Activity targetOrigin = new FirstActivity();
+
+        appLifecycleManager.addListener(new DefaultAppLifecycleListener() {
+            @Override
+            public void onAppStopped(Class<?> origin) {
+                counter.incrementAndGet();
+            }
+        });
+
+        appLifecycleManager.setTransitionPolicy(AppLifecycleTransitionPolicy.DEFAULT
+                .allow(AppLifecycleEvent.STOP, AppLifecycleEvent.RESUME));
+
+        appLifecycleManager.onCreate(targetOrigin);
+        appLifecycleManager.onStart(targetOrigin);
+        appLifecycleManager.onResume(targetOrigin);
+        appLifecycleManager.onStop(targetOrigin);
+
+        assertEquals(1, counter.get());
+        assertEquals(AppLifecycleEvent.STOP, appLifecycleManager.lastEvent);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: setAsyncExecutor
+    //----------------------------------------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void setAsyncExecutor_should_throw_if_null() throws Exception {
+        appLifecycleManager.setAsyncExecutor(null);
+    }
+
+    @Test
+    public void setAsyncExecutor_should_notify_async_listeners_on_executor_in_order() throws Exception {
+        final List<Runnable> tasks = new LinkedList<Runnable>();
+        final List<TestOriginEvent> actualEvents = new LinkedList<TestOriginEvent>();
+        final FirstActivity firstActivity = new FirstActivity();
+
+        appLifecycleManager.setAsyncExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        });
+
+        appLifecycleManager.addListener(new TestAsyncListener(actualEvents));
+
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+        appLifecycleManager.onFinish(firstActivity);
+
+        // not notified on the calling thread, one event submitted at a time
+        assertTrue(actualEvents.isEmpty());
+        assertEquals(1, tasks.size());
+
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+
+        final List<TestOriginEvent> expectedEvents = new LinkedList<TestOriginEvent>();
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.CREATE));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.STOP));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.FINISH));
+
+        assertEquals(expectedEvents, actualEvents);
+    }
+
+    @Test
+    public void async_listener_should_be_notified_on_default_executor() throws Exception {
+        final List<TestOriginEvent> actualEvents = Collections.synchronizedList(new LinkedList<TestOriginEvent>());
+        final CountDownLatch latch = new CountDownLatch(1);
+        final FirstActivity firstActivity = new FirstActivity();
+
+        appLifecycleManager.addListener(new TestAsyncListener(actualEvents) {
+            @Override
+            public void onAppCreated(Class<?> origin) {
+                super.onAppCreated(origin);
+                latch.countDown();
+            }
+        });
+
+        appLifecycleManager.onCreate(firstActivity);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.CREATE), actualEvents.get(0));
+
+        appLifecycleManager.dispose();
+    }
+
+    @Test
+    public void async_listener_should_not_be_notified_after_removal() throws Exception {
+        final List<Runnable> tasks = new LinkedList<Runnable>();
+        final List<TestOriginEvent> actualEvents = new LinkedList<TestOriginEvent>();
+        final TestAsyncListener listener = new TestAsyncListener(actualEvents);
+
+        appLifecycleManager.setAsyncExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        });
+
+        appLifecycleManager.addListener(listener);
+        appLifecycleManager.onCreate(new FirstActivity());
+        appLifecycleManager.removeListener(listener);
+
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+
+        assertTrue(actualEvents.isEmpty());
+    }
+
+    @Test
+    public void dispose_should_not_recreate_default_async_executor() throws Exception {
+        final List<TestOriginEvent> actualEvents = Collections.synchronizedList(new LinkedList<TestOriginEvent>());
+        final FirstActivity firstActivity = new FirstActivity();
+
+        appLifecycleManager.addListener(new TestAsyncListener(actualEvents));
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.dispose();
+
+        appLifecycleManager.addListener(new TestAsyncListener(actualEvents));
+        appLifecycleManager.onCreate(firstActivity);
+
+        assertNull(appLifecycleManager.asyncExecutor);
+        assertNull(appLifecycleManager.defaultAsyncExecutor);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: setStopGracePeriod
+    //----------------------------------------------------------------------------------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setStopGracePeriod_should_throw_if_negative() throws Exception {
+        appLifecycleManager.setStopGracePeriod(-1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void setStopGracePeriod_should_notify_stop_after_grace_period() throws Exception {
+        final FakeAppLifecycleClock clock = new FakeAppLifecycleClock();
+        final List<TestOriginEvent> actualEvents = createTestListener();
+        final FirstActivity firstActivity = new FirstActivity();
+
+        appLifecycleManager.setClock(clock);
+        appLifecycleManager.setStopGracePeriod(1, TimeUnit.SECONDS);
+
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+
+        assertEquals(4, actualEvents.size());
+
+        clock.advance(999);
+
+        assertEquals(4, actualEvents.size());
+
+        clock.advance(1);
+
+        assertEquals(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.STOP),
+                actualEvents.get(4));
+    }
+
+    @Test
+    public void setStopGracePeriod_should_not_notify_stop_and_start_if_started_within_grace_period() throws Exception {
+        final FakeAppLifecycleClock clock = new FakeAppLifecycleClock();
+        final List<TestOriginEvent> actualEvents = createTestListener();
+        final FirstActivity firstActivity = new FirstActivity();
+
+        appLifecycleManager.setClock(clock);
+        appLifecycleManager.setStopGracePeriod(1, TimeUnit.SECONDS);
+
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+
+        clock.advance(500);
+
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+
+        clock.advance(1000);
+
+        final List<TestOriginEvent> expectedEvents = new LinkedList<TestOriginEvent>();
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.CREATE));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.START));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.RESUME));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.PAUSE));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.RESUME));
+
+        assertEquals(expectedEvents, actualEvents);
+        assertEquals(0, clock.getPendingTaskCount());
+    }
+
+    @Test
+    public void setStopGracePeriod_should_notify_stop_before_finish_within_grace_period() throws Exception {
+        final FakeAppLifecycleClock clock = new FakeAppLifecycleClock();
+        final List<TestOriginEvent> actualEvents = createTestListener();
+        final FirstActivity firstActivity = new FirstActivity();
+
+        appLifecycleManager.setClock(clock);
+        appLifecycleManager.setStopGracePeriod(1, TimeUnit.SECONDS);
+
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+        appLifecycleManager.onFinish(firstActivity);
+
+        assertEquals(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.STOP),
+                actualEvents.get(4));
+        assertEquals(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.FINISH),
+                actualEvents.get(5));
+        assertEquals(0, clock.getPendingTaskCount());
+    }
+
     //----------------------------------------------------------------------------------------------
-    // TESTS: removeListener
+    // TESTS: onConfigurationChange
     //----------------------------------------------------------------------------------------------
 
-    @Test(expected = NullPointerException.class)
-    public void removeListener_should_throw_if_null() throws Exception {
-        appLifecycleManager.removeListener(null);
+    @Test
+    public void onConfigurationChange_should_not_notify_recreation_of_resumed_activity() throws Exception {
+        final List<TestOriginEvent> actualEvents = createTestListener();
+        final FirstActivity firstActivity = new FirstActivity();
+        final FirstActivity recreatedActivity = new FirstActivity();
+
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+
+        // rotate: pause and stop are not forwarded
+        appLifecycleManager.onConfigurationChange(firstActivity);
+        appLifecycleManager.onCreate(recreatedActivity);
+        appLifecycleManager.onStart(recreatedActivity);
+        appLifecycleManager.onResume(recreatedActivity);
+
+        assertEquals(3, actualEvents.size());
+        assertNull(appLifecycleManager.recreationEvent);
+
+        // exit
+        appLifecycleManager.onPause(recreatedActivity);
+        appLifecycleManager.onStop(recreatedActivity);
+        appLifecycleManager.onFinish(recreatedActivity);
+
+        assertEquals(6, actualEvents.size());
+        assertEquals(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.FINISH),
+                actualEvents.get(5));
     }
 
-    @Test(expected = IllegalStateException.class)
-    public void removeListener_should_throw_if_not_added() throws Exception {
-        appLifecycleManager.removeListener(new DefaultAppLifecycleListener());
+    @Test
+    public void onConfigurationChange_should_notify_start_of_activity_recreated_after_stop() throws Exception {
+        final List<TestOriginEvent> actualEvents = createTestListener();
+        final FirstActivity firstActivity = new FirstActivity();
+        final FirstActivity recreatedActivity = new FirstActivity();
+
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+
+        // rotated in the background: recreated when the app is started again
+        appLifecycleManager.onConfigurationChange(firstActivity);
+        appLifecycleManager.onCreate(recreatedActivity);
+        appLifecycleManager.onStart(recreatedActivity);
+        appLifecycleManager.onResume(recreatedActivity);
+
+        final List<TestOriginEvent> expectedEvents = new LinkedList<TestOriginEvent>();
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.CREATE));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.START));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.RESUME));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.PAUSE));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.STOP));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.START));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.RESUME));
+
+        assertEquals(expectedEvents, actualEvents);
     }
 
     @Test
-    public void removeListener_should_remove_listener() throws Exception {
-        final DefaultAppLifecycleListener listener = new DefaultAppLifecycleListener();
+    public void onConfigurationChange_should_ignore_different_origin() throws Exception {
+        final FirstActivity firstActivity = new FirstActivity();
 
-        appLifecycleManager.addListener(listener);
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onConfigurationChange(new SecondActivity());
 
-        assertTrue(appLifecycleManager.listeners.contains(listener));
+        assertNull(appLifecycleManager.recreationEvent);
+    }
 
-        appLifecycleManager.removeListener(listener);
+    //----------------------------------------------------------------------------------------------
+    // TESTS: onRelease
+    //----------------------------------------------------------------------------------------------
 
-        assertFalse(appLifecycleManager.listeners.contains(listener));
+    @Test
+    public void onRelease_should_not_finish_or_end_session() throws Exception {
+        final List<TestOriginEvent> actualEvents = createTestListener();
+        final FirstActivity firstActivity = new FirstActivity();
+        final FirstActivity recreatedActivity = new FirstActivity();
+
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+
+        // reclaimed by the system in the background, recreated when the app is started again
+        appLifecycleManager.onRelease(firstActivity);
+        appLifecycleManager.onCreate(recreatedActivity);
+        appLifecycleManager.onStart(recreatedActivity);
+        appLifecycleManager.onResume(recreatedActivity);
+
+        final List<TestOriginEvent> expectedEvents = new LinkedList<TestOriginEvent>();
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.CREATE));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.START));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.RESUME));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.PAUSE));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.STOP));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.START));
+        expectedEvents.add(new TestOriginEvent(FirstActivity.class, AppLifecycleEvent.RESUME));
+
+        assertEquals(expectedEvents, actualEvents);
     }
 
+    //----------------------------------------------------------------------------------------------
+    // TESTS: setJournal
+    //----------------------------------------------------------------------------------------------
+
     @Test
-    public void removeListener_should_not_remove_persistent_listener() throws Exception {
-        final PersistentAppLifecycleListener listener = new PersistentAppLifecycleListener();
+    public void setJournal_should_record_accepted_and_rejected_calls() throws Exception {
+        final AppLifecycleJournal journal = new AppLifecycleJournal(16);
+        final FirstActivity firstActivity = new FirstActivity();
 
-        appLifecycleManager.addListener(listener);
+        appLifecycleManager.setJournal(journal);
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
 
-        assertTrue(appLifecycleManager.listeners.contains(listener));
+        final String[] lines = journal.dump().split("\n");
 
-        appLifecycleManager.removeListener(listener);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].endsWith(" CREATE " + FirstActivity.class.getName() + " ACCEPTED"));
+        assertTrue(lines[1].endsWith(" RESUME " + FirstActivity.class.getName() + " REJECTED"));
+    }
 
-        assertTrue(appLifecycleManager.listeners.contains(listener));
+    @Test
+    public void setJournal_should_record_ignored_call_from_different_origin() throws Exception {
+        final AppLifecycleJournal journal = new AppLifecycleJournal(16);
+        final FirstActivity firstActivity = new FirstActivity();
+
+        appLifecycleManager.setJournal(journal);
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+        appLifecycleManager.onPause(new SecondActivity());
+
+        final String[] lines = journal.dump().split("\n");
+
+        assertEquals(4, lines.length);
+        assertTrue(lines[2].endsWith(" RESUME " + FirstActivity.class.getName() + " ACCEPTED"));
+        assertTrue(lines[3].endsWith(" PAUSE " + SecondActivity.class.getName() + " IGNORED"));
     }
 
     @Test
-    public void removeListener_should_return_manager() throws Exception {
-        AppLifecycleListenable listenable = appLifecycleManager.addListener(new DefaultAppLifecycleListener());
+    public void setJournal_should_record_ignored_recreation() throws Exception {
+        final AppLifecycleJournal journal = new AppLifecycleJournal(16);
+        final FirstActivity firstActivity = new FirstActivity();
 
-        assertSame(appLifecycleManager, listenable);
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.setJournal(journal);
+        appLifecycleManager.onConfigurationChange(firstActivity);
+        appLifecycleManager.onCreate(new FirstActivity());
+
+        final String[] lines = journal.dump().split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].endsWith(" ACCEPTED"));
+        assertTrue(lines[1].endsWith(" CREATE " + FirstActivity.class.getName() + " IGNORED"));
     }
 
+    //----------------------------------------------------------------------------------------------
+    // TESTS: restoreSession
+    //----------------------------------------------------------------------------------------------
+
     @Test
-    public void removeListener_should_not_throw_concurrent_modification_exception() throws Exception {
-        final DefaultAppLifecycleListener firstListener = new DefaultAppLifecycleListener();
-        final DefaultAppLifecycleListener lastListener = new DefaultAppLifecycleListener();
+    public void restoreSession_should_mark_restored_session_until_finish() throws Exception {
+        final FirstActivity firstActivity = new FirstActivity();
+        final AtomicInteger restoredCreated = new AtomicInteger();
 
-        appLifecycleManager.addListener(firstListener);
-        appLifecycleManager.addListener(new DefaultAppLifecycleListener() {
+        appLifecycleManager.setSaveInstanceStateEnabled(true);
+        appLifecycleManager.addListener(new OnAppCreated() {
             @Override
             public void onAppCreated(Class<?> origin) {
-                appLifecycleManager.removeListener(firstListener);
-                appLifecycleManager.removeListener(lastListener);
+                if (appLifecycleManager.isRestoredSession()) {
+                    restoredCreated.incrementAndGet();
+                }
             }
         });
-        appLifecycleManager.addListener(lastListener);
 
+        // process was killed: activity is recreated with saved instance state
+        appLifecycleManager.restoreSession(true);
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+
+        assertEquals(1, restoredCreated.get());
+        assertTrue(appLifecycleManager.isRestoredSession());
+
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+        appLifecycleManager.onFinish(firstActivity);
+
+        assertFalse(appLifecycleManager.isRestoredSession());
+    }
+
+    @Test
+    public void restoreSession_should_ignore_active_session() throws Exception {
+        appLifecycleManager.setSaveInstanceStateEnabled(true);
         appLifecycleManager.onCreate(new FirstActivity());
+
+        // e.g. recreated after a configuration change
+        appLifecycleManager.restoreSession(true);
+
+        assertFalse(appLifecycleManager.isRestoredSession());
+    }
+
+    @Test
+    public void restoreSession_should_ignore_if_not_enabled() throws Exception {
+        appLifecycleManager.restoreSession(true);
+
+        assertFalse(appLifecycleManager.isRestoredSession());
+    }
+
+    @Test
+    public void restoreSession_should_ignore_if_no_session_was_saved() throws Exception {
+        appLifecycleManager.setSaveInstanceStateEnabled(true);
+        appLifecycleManager.restoreSession(false);
+
+        assertFalse(appLifecycleManager.isRestoredSession());
     }
 
     //----------------------------------------------------------------------------------------------
@@ -461,6 +1342,75 @@ public class CrossActivityAppLifecycleManagerTest {
         assertNull(appLifecycleManager.lastEvent);
     }
 
+    @Test
+    public void onFinish_should_remove_all_session_listeners_and_keep_persistent_listeners() throws Exception {
+        final Activity targetOrigin = new FirstActivity();
+        final List<AppLifecycleEventListener> sessionListeners = new LinkedList<AppLifecycleEventListener>();
+        final PersistentAppLifecycleListener persistentListener = new PersistentAppLifecycleListener();
+
+        for (int i = 0; i < 3; i++) {
+            final DefaultAppLifecycleListener listener = new DefaultAppLifecycleListener();
+
+            appLifecycleManager.addListener(listener);
+            sessionListeners.add(listener);
+        }
+
+        appLifecycleManager.addListener(persistentListener);
+
+        final int generation = appLifecycleManager.getSessionGeneration();
+
+        appLifecycleManager.onCreate(targetOrigin);
+        appLifecycleManager.onStart(targetOrigin);
+        appLifecycleManager.onResume(targetOrigin);
+        appLifecycleManager.onPause(targetOrigin);
+        appLifecycleManager.onStop(targetOrigin);
+        appLifecycleManager.onFinish(targetOrigin);
+
+        for (AppLifecycleEventListener listener : sessionListeners) {
+            assertFalse(appLifecycleManager.listeners.contains(listener));
+        }
+
+        assertTrue(appLifecycleManager.listeners.contains(persistentListener));
+        assertEquals(1, appLifecycleManager.listeners.size());
+        assertEquals(generation + 1, appLifecycleManager.getSessionGeneration());
+    }
+
+    @Test
+    public void persistent_and_session_listeners_should_be_called_in_reverse_order() throws Exception {
+        final LinkedList<AppLifecycleEventListener> actualCalled = new LinkedList<AppLifecycleEventListener>();
+
+        class SessionListener extends DefaultAppLifecycleListener {
+            @Override
+            public void onAppCreated(Class<?> origin) {
+                actualCalled.add(this);
+            }
+        }
+
+        class TestPersistentListener extends PersistentAppLifecycleListener {
+            @Override
+            public void onAppCreated(Class<?> origin) {
+                actualCalled.add(this);
+            }
+        }
+
+        final SessionListener first = new SessionListener();
+        final TestPersistentListener second = new TestPersistentListener();
+        final SessionListener third = new SessionListener();
+
+        appLifecycleManager.addListener(first);
+        appLifecycleManager.addListener(second);
+        appLifecycleManager.addListener(third);
+
+        appLifecycleManager.onCreate(new FirstActivity());
+
+        final LinkedList<AppLifecycleEventListener> expectedCalled = new LinkedList<AppLifecycleEventListener>();
+        expectedCalled.add(third);
+        expectedCalled.add(second);
+        expectedCalled.add(first);
+
+        assertEquals(expectedCalled, actualCalled);
+    }
+
     //----------------------------------------------------------------------------------------------
     // FUNCTIONAL TESTS
     //----------------------------------------------------------------------------------------------
@@ -555,6 +1505,35 @@ public class CrossActivityAppLifecycleManagerTest {
     // HELPER METHODS
     //----------------------------------------------------------------------------------------------
 
+    private boolean hasEntry(AppLifecycleEvent event, AppLifecycleEventListener listener) {
+        for (AppLifecycleListenerRegistry.Entry entry : appLifecycleManager.listeners.getEntries(event)) {
+            if (entry.get() == listener) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private WeakReference<AppLifecycleEventListener> addCollectableListener() {
+        final AppLifecycleEventListener listener = new DefaultAppLifecycleListener();
+
+        appLifecycleManager.addWeakListener(listener);
+
+        return new WeakReference<AppLifecycleEventListener>(listener);
+    }
+
+    private void awaitCollected(WeakReference<?> reference) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+
+        while (reference.get() != null && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(reference.get());
+    }
+
     private List<TestOriginEvent> createTestListener() {
         final List<TestOriginEvent> actualEvents = new LinkedList<TestOriginEvent>();
 
@@ -593,6 +1572,58 @@ public class CrossActivityAppLifecycleManagerTest {
         return actualEvents;
     }
 
+    //----------------------------------------------------------------------------------------------
+    // HELPER CLASS: TestNamedListener
+    //----------------------------------------------------------------------------------------------
+
+    static class TestNamedListener implements OnAppCreated, OnAppFinished {
+        final String name;
+        final List<String> calls;
+
+        TestNamedListener(String name, List<String> calls) {
+            this.name = name;
+            this.calls = calls;
+        }
+
+        @Override
+        public void onAppCreated(Class<?> origin) {
+            calls.add(name);
+        }
+
+        @Override
+        public void onAppFinished(Class<?> origin) {
+            calls.add(name);
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPER CLASS: TestAsyncListener
+    //----------------------------------------------------------------------------------------------
+
+    static class TestAsyncListener implements OnAppCreated, OnAppStopped, OnAppFinished,
+            AsyncAppLifecycleEventListener {
+        final List<TestOriginEvent> events;
+
+        TestAsyncListener(List<TestOriginEvent> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void onAppCreated(Class<?> origin) {
+            events.add(new TestOriginEvent(origin, AppLifecycleEvent.CREATE));
+        }
+
+        @Override
+        public void onAppStopped(Class<?> origin) {
+            events.add(new TestOriginEvent(origin, AppLifecycleEvent.STOP));
+        }
+
+        @Override
+        public void onAppFinished(Class<?> origin) {
+            events.add(new TestOriginEvent(origin, AppLifecycleEvent.FINISH));
+        }
+    }
+
     //----------------------------------------------------------------------------------------------
     // HELPER CLASS: TestOriginEvent
     //----------------------------------------------------------------------------------------------
@@ -627,4 +1658,36 @@ public class CrossActivityAppLifecycleManagerTest {
         }
     }
 
+    //----------------------------------------------------------------------------------------------
+    // HELPER CLASS: TestListenerFactory
+    //----------------------------------------------------------------------------------------------
+
+    static class TestListenerFactory implements AppLifecycleListenerFactory {
+        int created;
+        TestLazyListener listener;
+
+        @Override
+        public AppLifecycleEventListener create() {
+            created++;
+            listener = new TestLazyListener();
+
+            return listener;
+        }
+    }
+
+    static class TestLazyListener implements OnAppResumed, OnAppStopped {
+        int resumed;
+        int stopped;
+
+        @Override
+        public void onAppResumed(Class<?> origin) {
+            resumed++;
+        }
+
+        @Override
+        public void onAppStopped(Class<?> origin) {
+            stopped++;
+        }
+    }
+
 }
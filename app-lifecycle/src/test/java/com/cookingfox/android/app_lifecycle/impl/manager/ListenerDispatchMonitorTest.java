@@ -0,0 +1,182 @@
+package com.cookingfox.android.app_lifecycle.impl.manager;
+
+import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleEventListener;
+import com.cookingfox.android.app_lifecycle.fixture.FirstActivity;
+import com.cookingfox.android.app_lifecycle.impl.listener.DefaultAppLifecycleListener;
+
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link ListenerDispatchMonitor}.
+ */
+public class ListenerDispatchMonitorTest {
+
+    private final List<AppLifecycleEventListener> reported = new LinkedList<AppLifecycleEventListener>();
+
+    private final ListenerDispatchMonitor.SlowListenerReporter reporter =
+            new ListenerDispatchMonitor.SlowListenerReporter() {
+                @Override
+                public void onSlowListener(AppLifecycleEventListener listener, AppLifecycleEvent event, long durationNanos) {
+                    reported.add(listener);
+                }
+            };
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: constructor
+    //----------------------------------------------------------------------------------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_should_throw_if_budget_negative() throws Exception {
+        new ListenerDispatchMonitor(-1, TimeUnit.MILLISECONDS, reporter);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructor_should_throw_if_reporter_null() throws Exception {
+        new ListenerDispatchMonitor(1, TimeUnit.MILLISECONDS, null);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: record
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void record_should_keep_count_total_and_max() throws Exception {
+        final ListenerDispatchMonitor monitor = new ListenerDispatchMonitor(1, TimeUnit.SECONDS, reporter);
+        final DefaultAppLifecycleListener listener = new DefaultAppLifecycleListener();
+
+        monitor.record(AppLifecycleEvent.RESUME, listener, 10);
+        monitor.record(AppLifecycleEvent.RESUME, listener, 30);
+        monitor.record(AppLifecycleEvent.PAUSE, listener, 5);
+
+        final ListenerDispatchMonitor.Stats stats = monitor.getStats(listener);
+
+        assertEquals(2, stats.getCount(AppLifecycleEvent.RESUME));
+        assertEquals(40, stats.getTotalNanos(AppLifecycleEvent.RESUME));
+        assertEquals(30, stats.getMaxNanos(AppLifecycleEvent.RESUME));
+        assertEquals(1, stats.getCount(AppLifecycleEvent.PAUSE));
+        assertEquals(0, stats.getCount(AppLifecycleEvent.STOP));
+        assertTrue(reported.isEmpty());
+    }
+
+    @Test
+    public void getStats_should_return_snapshot() throws Exception {
+        final ListenerDispatchMonitor monitor = new ListenerDispatchMonitor(1, TimeUnit.SECONDS, reporter);
+        final DefaultAppLifecycleListener listener = new DefaultAppLifecycleListener();
+
+        monitor.record(AppLifecycleEvent.RESUME, listener, 10);
+
+        final ListenerDispatchMonitor.Stats stats = monitor.getStats(listener);
+
+        monitor.record(AppLifecycleEvent.RESUME, listener, 30);
+
+        assertEquals(1, stats.getCount(AppLifecycleEvent.RESUME));
+        assertEquals(10, stats.getMaxNanos(AppLifecycleEvent.RESUME));
+        assertEquals(2, monitor.getStats(listener).getCount(AppLifecycleEvent.RESUME));
+    }
+
+    @Test
+    public void record_should_report_if_budget_exceeded() throws Exception {
+        final ListenerDispatchMonitor monitor = new ListenerDispatchMonitor(100, TimeUnit.NANOSECONDS, reporter);
+        final DefaultAppLifecycleListener listener = new DefaultAppLifecycleListener();
+
+        monitor.record(AppLifecycleEvent.RESUME, listener, 100);
+        monitor.record(AppLifecycleEvent.RESUME, listener, 101);
+
+        assertEquals(1, reported.size());
+        assertSame(listener, reported.get(0));
+    }
+
+    @Test
+    public void record_should_not_keep_listener_reachable() throws Exception {
+        final ListenerDispatchMonitor monitor = new ListenerDispatchMonitor(1, TimeUnit.SECONDS, reporter);
+        final WeakReference<AppLifecycleEventListener> reference = recordCollectableListener(monitor);
+        final long deadline = System.currentTimeMillis() + 5000;
+
+        while (reference.get() != null && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(reference.get());
+
+        // purges the statistics of the collected listener
+        monitor.record(AppLifecycleEvent.RESUME, new DefaultAppLifecycleListener(), 10);
+
+        assertEquals(1, monitor.stats.size());
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: reset
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void reset_should_clear_stats() throws Exception {
+        final ListenerDispatchMonitor monitor = new ListenerDispatchMonitor(1, TimeUnit.SECONDS, reporter);
+        final DefaultAppLifecycleListener listener = new DefaultAppLifecycleListener();
+
+        monitor.record(AppLifecycleEvent.RESUME, listener, 10);
+        monitor.reset();
+
+        assertNull(monitor.getStats(listener));
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // FUNCTIONAL TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void functional_manager_should_time_listener_calls() throws Exception {
+        final CrossActivityAppLifecycleManager manager = new CrossActivityAppLifecycleManager();
+        final ListenerDispatchMonitor monitor = new ListenerDispatchMonitor(50, TimeUnit.MILLISECONDS, reporter);
+        final FirstActivity activity = new FirstActivity();
+
+        final DefaultAppLifecycleListener fastListener = new DefaultAppLifecycleListener();
+        final DefaultAppLifecycleListener slowListener = new DefaultAppLifecycleListener() {
+            @Override
+            public void onAppResumed(Class<?> origin) {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+
+        manager.addListener(fastListener);
+        manager.addListener(slowListener);
+        manager.setDispatchMonitor(monitor);
+
+        manager.onCreate(activity);
+        manager.onStart(activity);
+        manager.onResume(activity);
+
+        assertEquals(1, monitor.getStats(fastListener).getCount(AppLifecycleEvent.RESUME));
+        assertTrue(monitor.getStats(slowListener).getMaxNanos(AppLifecycleEvent.RESUME) >= TimeUnit.MILLISECONDS.toNanos(200));
+        assertTrue(reported.contains(slowListener));
+        assertFalse(reported.contains(fastListener));
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPER METHODS
+    //----------------------------------------------------------------------------------------------
+
+    private WeakReference<AppLifecycleEventListener> recordCollectableListener(ListenerDispatchMonitor monitor) {
+        final AppLifecycleEventListener listener = new DefaultAppLifecycleListener();
+
+        monitor.record(AppLifecycleEvent.RESUME, listener, 10);
+
+        return new WeakReference<AppLifecycleEventListener>(listener);
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.cookingfox.android.app_lifecycle.impl.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link AppLifecycleHistogram}.
+ */
+public class AppLifecycleHistogramTest {
+
+    private static final long[] BOUNDS = {10, 100, 1000};
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_should_throw_if_bounds_empty() throws Exception {
+        new AppLifecycleHistogram(new long[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_should_throw_if_bounds_not_ascending() throws Exception {
+        new AppLifecycleHistogram(new long[]{100, 10});
+    }
+
+    @Test
+    public void getDefaultBoundsMillis_should_return_copy() throws Exception {
+        final long[] bounds = AppLifecycleHistogram.getDefaultBoundsMillis();
+        bounds[0] = Long.MAX_VALUE;
+
+        assertEquals(1000, AppLifecycleHistogram.getDefaultBoundsMillis()[0]);
+        assertEquals(1000, new AppLifecycleHistogram().snapshot().getBounds()[0]);
+    }
+
+    @Test
+    public void record_should_count_values_per_bucket() throws Exception {
+        final AppLifecycleHistogram histogram = new AppLifecycleHistogram(BOUNDS);
+
+        histogram.record(0);
+        histogram.record(10);
+        histogram.record(11);
+        histogram.record(1000);
+        histogram.record(5000);
+        histogram.record(-1);
+
+        final AppLifecycleHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertArrayEquals(new long[]{2, 1, 1, 1}, snapshot.getCounts());
+        assertEquals(5, snapshot.getCount());
+        assertEquals(6021, snapshot.getSum());
+        assertEquals(5000, snapshot.getMax());
+    }
+
+    @Test
+    public void getPercentile_should_return_bucket_upper_bound() throws Exception {
+        final AppLifecycleHistogram histogram = new AppLifecycleHistogram(BOUNDS);
+
+        for (int i = 1; i <= 90; i++) {
+            histogram.record(5);
+        }
+
+        for (int i = 1; i <= 9; i++) {
+            histogram.record(50);
+        }
+
+        histogram.record(3000);
+
+        final AppLifecycleHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(10, snapshot.getPercentile(50));
+        assertEquals(10, snapshot.getPercentile(90));
+        assertEquals(100, snapshot.getPercentile(99));
+        assertEquals(3000, snapshot.getPercentile(100));
+    }
+
+    @Test
+    public void getPercentile_should_be_limited_to_max() throws Exception {
+        final AppLifecycleHistogram histogram = new AppLifecycleHistogram(BOUNDS);
+
+        histogram.record(42);
+
+        assertEquals(42, histogram.snapshot().getPercentile(50));
+    }
+
+    @Test
+    public void getPercentile_should_return_zero_if_empty() throws Exception {
+        assertEquals(0, new AppLifecycleHistogram(BOUNDS).snapshot().getPercentile(50));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getPercentile_should_throw_if_out_of_range() throws Exception {
+        new AppLifecycleHistogram(BOUNDS).snapshot().getPercentile(0);
+    }
+
+    @Test
+    public void snapshotAndReset_should_remove_values() throws Exception {
+        final AppLifecycleHistogram histogram = new AppLifecycleHistogram(BOUNDS);
+
+        histogram.record(50);
+
+        assertEquals(1, histogram.snapshotAndReset().getCount());
+
+        final AppLifecycleHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getSum());
+        assertEquals(0, snapshot.getMax());
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.cookingfox.android.app_lifecycle.impl.metrics;
+
+import com.cookingfox.android.app_lifecycle.fixture.FakeAppLifecycleClock;
+import com.cookingfox.android.app_lifecycle.fixture.FirstActivity;
+import com.cookingfox.android.app_lifecycle.impl.manager.CrossActivityAppLifecycleManager;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link AppLifecycleSessionMetrics}.
+ */
+public class AppLifecycleSessionMetricsTest {
+
+    private FakeAppLifecycleClock clock;
+    private CrossActivityAppLifecycleManager appLifecycleManager;
+    private AppLifecycleSessionMetrics metrics;
+    private FirstActivity firstActivity;
+
+    //----------------------------------------------------------------------------------------------
+    // SETUP
+    //----------------------------------------------------------------------------------------------
+
+    @Before
+    public void setUp() throws Exception {
+        clock = new FakeAppLifecycleClock();
+        appLifecycleManager = new CrossActivityAppLifecycleManager();
+        metrics = new AppLifecycleSessionMetrics(clock);
+        firstActivity = new FirstActivity();
+
+        appLifecycleManager.addListener(metrics);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void constructor_should_throw_if_clock_null() throws Exception {
+        new AppLifecycleSessionMetrics(null);
+    }
+
+    @Test
+    public void should_record_foreground_and_background_durations() throws Exception {
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+
+        clock.advance(1500);
+
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+
+        clock.advance(40000);
+
+        appLifecycleManager.onStart(firstActivity);
+
+        final AppLifecycleHistogram.Snapshot foreground = metrics.getForegroundDurations().snapshot();
+        final AppLifecycleHistogram.Snapshot background = metrics.getBackgroundDurations().snapshot();
+
+        assertEquals(1, foreground.getCount());
+        assertEquals(1500, foreground.getSum());
+        assertEquals(1, background.getCount());
+        assertEquals(40000, background.getSum());
+    }
+
+    @Test
+    public void should_record_background_duration_until_finish() throws Exception {
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+
+        clock.advance(3000);
+
+        appLifecycleManager.onFinish(firstActivity);
+
+        assertEquals(3000, metrics.getBackgroundDurations().snapshot().getSum());
+
+        // persistent: keeps recording in the next session
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+
+        assertEquals(1, metrics.getBackgroundDurations().snapshot().getCount());
+        assertEquals(2, metrics.getForegroundDurations().snapshot().getCount());
+    }
+
+    @Test
+    public void reset_should_remove_durations() throws Exception {
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+
+        metrics.reset();
+
+        assertEquals(0, metrics.getForegroundDurations().snapshot().getCount());
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.cookingfox.android.app_lifecycle.impl.metrics;
+
+import com.cookingfox.android.app_lifecycle.fixture.FakeAppLifecycleClock;
+import com.cookingfox.android.app_lifecycle.fixture.FirstActivity;
+import com.cookingfox.android.app_lifecycle.impl.manager.CrossActivityAppLifecycleManager;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link AppLifecycleStartupTracker}.
+ */
+public class AppLifecycleStartupTrackerTest {
+
+    private FakeAppLifecycleClock clock;
+    private CrossActivityAppLifecycleManager appLifecycleManager;
+    private AppLifecycleStartupTracker tracker;
+    private List<AppLifecycleStartup> measured;
+    private FirstActivity firstActivity;
+
+    //----------------------------------------------------------------------------------------------
+    // SETUP
+    //----------------------------------------------------------------------------------------------
+
+    @Before
+    public void setUp() throws Exception {
+        clock = new FakeAppLifecycleClock();
+        appLifecycleManager = new CrossActivityAppLifecycleManager();
+        measured = new LinkedList<AppLifecycleStartup>();
+        firstActivity = new FirstActivity();
+
+        // process started at 1000, tracker initialized at 1300
+        clock.advance(1300);
+        tracker = new AppLifecycleStartupTracker(clock, 1000);
+        tracker.setListener(new AppLifecycleStartupTracker.Listener() {
+            @Override
+            public void onAppStartupMeasured(AppLifecycleStartup startup) {
+                measured.add(startup);
+            }
+        });
+
+        appLifecycleManager.addListener(tracker);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void should_measure_cold_start() throws Exception {
+        clock.advance(200);
+        appLifecycleManager.onCreate(firstActivity);
+        clock.advance(100);
+        appLifecycleManager.onStart(firstActivity);
+        clock.advance(50);
+        appLifecycleManager.onResume(firstActivity);
+
+        final AppLifecycleStartup startup = tracker.getLastStartup();
+
+        assertEquals(1, measured.size());
+        assertEquals(AppLifecycleStartup.Type.COLD, startup.getType());
+        assertEquals(300, startup.getProcessToInitializeMillis());
+        assertEquals(200, startup.getInitializeToCreateMillis());
+        assertEquals(150, startup.getCreateToResumeMillis());
+        assertEquals(50, startup.getStartToResumeMillis());
+        assertEquals(650, startup.getTotalMillis());
+    }
+
+    @Test
+    public void should_measure_hot_start() throws Exception {
+        launch();
+
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+
+        clock.advance(5000);
+        appLifecycleManager.onStart(firstActivity);
+        clock.advance(20);
+        appLifecycleManager.onResume(firstActivity);
+
+        final AppLifecycleStartup startup = tracker.getLastStartup();
+
+        assertEquals(AppLifecycleStartup.Type.HOT, startup.getType());
+        assertEquals(-1, startup.getCreateToResumeMillis());
+        assertEquals(20, startup.getStartToResumeMillis());
+        assertEquals(20, startup.getTotalMillis());
+    }
+
+    @Test
+    public void should_measure_warm_start() throws Exception {
+        launch();
+
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+        appLifecycleManager.onFinish(firstActivity);
+
+        clock.advance(5000);
+        appLifecycleManager.onCreate(firstActivity);
+        clock.advance(80);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+
+        final AppLifecycleStartup startup = tracker.getLastStartup();
+
+        assertEquals(2, measured.size());
+        assertEquals(AppLifecycleStartup.Type.WARM, startup.getType());
+        assertEquals(-1, startup.getProcessToInitializeMillis());
+        assertEquals(80, startup.getCreateToResumeMillis());
+        assertEquals(80, startup.getTotalMillis());
+    }
+
+    @Test
+    public void should_measure_warm_start_when_created_after_cold_start_window() throws Exception {
+        // process started for a service: activity launched much later
+        clock.advance(AppLifecycleStartupTracker.DEFAULT_COLD_START_WINDOW_MILLIS);
+        appLifecycleManager.onCreate(firstActivity);
+        clock.advance(100);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+
+        final AppLifecycleStartup startup = tracker.getLastStartup();
+
+        assertEquals(AppLifecycleStartup.Type.WARM, startup.getType());
+        assertEquals(-1, startup.getProcessToInitializeMillis());
+        assertEquals(100, startup.getTotalMillis());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_should_throw_if_cold_start_window_negative() throws Exception {
+        new AppLifecycleStartupTracker(clock, 0, -1);
+    }
+
+    @Test
+    public void should_not_measure_resume_without_start() throws Exception {
+        launch();
+
+        appLifecycleManager.onPause(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+
+        assertEquals(1, measured.size());
+    }
+
+    @Test
+    public void should_not_measure_startup_stopped_before_resume() throws Exception {
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onStop(firstActivity);
+
+        assertNull(tracker.getLastStartup());
+    }
+
+    @Test
+    public void readProcessStartMillis_should_not_throw() throws Exception {
+        assertTrue(AppLifecycleStartupTracker.readProcessStartMillis() >= -1);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPER METHODS
+    //----------------------------------------------------------------------------------------------
+
+    private void launch() {
+        appLifecycleManager.onCreate(firstActivity);
+        appLifecycleManager.onStart(firstActivity);
+        appLifecycleManager.onResume(firstActivity);
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.cookingfox.android.app_lifecycle.impl.metrics;
+
+import com.cookingfox.android.app_lifecycle.fixture.FakeAppLifecycleClock;
+import com.cookingfox.android.app_lifecycle.fixture.FirstActivity;
+import com.cookingfox.android.app_lifecycle.impl.manager.CrossActivityAppLifecycleManager;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link AppLifecycleStatsStore}.
+ */
+public class AppLifecycleStatsStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private FakeAppLifecycleClock clock;
+    private File file;
+    private FirstActivity firstActivity;
+
+    //----------------------------------------------------------------------------------------------
+    // SETUP
+    //----------------------------------------------------------------------------------------------
+
+    @Before
+    public void setUp() throws Exception {
+        clock = new FakeAppLifecycleClock();
+        file = new File(temporaryFolder.getRoot(), "stats");
+        firstActivity = new FirstActivity();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void should_persist_statistics() throws Exception {
+        final CrossActivityAppLifecycleManager manager = createManager(new AppLifecycleStatsStore(file, clock));
+
+        manager.onCreate(firstActivity);
+        manager.onStart(firstActivity);
+        manager.onResume(firstActivity);
+        clock.advance(1000);
+        manager.onPause(firstActivity);
+        manager.onStop(firstActivity);
+        manager.onStart(firstActivity);
+        manager.onResume(firstActivity);
+        clock.advance(500);
+        manager.onPause(firstActivity);
+        manager.onStop(firstActivity);
+        manager.onFinish(firstActivity);
+
+        final AppLifecycleStatsStore reopened = new AppLifecycleStatsStore(file, clock);
+
+        assertEquals(1, reopened.getSessionCount());
+        assertEquals(2, reopened.getForegroundCount());
+        assertEquals(1500, reopened.getForegroundMillis());
+        assertEquals(0, reopened.getInterruptedSessionCount());
+        assertFalse(reopened.wasLastSessionInterrupted());
+    }
+
+    @Test
+    public void should_detect_session_interrupted_in_background() throws Exception {
+        final CrossActivityAppLifecycleManager manager = createManager(new AppLifecycleStatsStore(file, clock));
+
+        manager.onCreate(firstActivity);
+        manager.onStart(firstActivity);
+        manager.onResume(firstActivity);
+        manager.onPause(firstActivity);
+        manager.onStop(firstActivity);
+
+        // process killed: reopen without finish
+        final AppLifecycleStatsStore reopened = new AppLifecycleStatsStore(file, clock);
+
+        assertTrue(reopened.wasLastSessionInterrupted());
+        assertEquals(1, reopened.getInterruptedSessionCount());
+        assertEquals(0, reopened.getInterruptedForegroundSessionCount());
+
+        // counted once
+        assertFalse(new AppLifecycleStatsStore(file, clock).wasLastSessionInterrupted());
+    }
+
+    @Test
+    public void should_detect_session_interrupted_in_foreground() throws Exception {
+        final CrossActivityAppLifecycleManager manager = createManager(new AppLifecycleStatsStore(file, clock));
+
+        manager.onCreate(firstActivity);
+        manager.onStart(firstActivity);
+        manager.onResume(firstActivity);
+
+        // crash: reopen without stop and finish
+        final AppLifecycleStatsStore reopened = new AppLifecycleStatsStore(file, clock);
+
+        assertEquals(1, reopened.getInterruptedSessionCount());
+        assertEquals(1, reopened.getInterruptedForegroundSessionCount());
+    }
+
+    @Test
+    public void should_reset_file_with_different_layout() throws Exception {
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        randomAccessFile.writeLong(Long.MAX_VALUE);
+        randomAccessFile.writeLong(Long.MAX_VALUE);
+        randomAccessFile.close();
+
+        final AppLifecycleStatsStore store = new AppLifecycleStatsStore(file, clock);
+
+        assertEquals(0, store.getSessionCount());
+        assertFalse(store.wasLastSessionInterrupted());
+    }
+
+    @Test
+    public void reset_should_clear_statistics() throws Exception {
+        final AppLifecycleStatsStore store = new AppLifecycleStatsStore(file, clock);
+
+        store.onAppCreated(FirstActivity.class);
+        store.reset();
+        store.flush();
+
+        assertEquals(0, new AppLifecycleStatsStore(file, clock).getSessionCount());
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPER METHODS
+    //----------------------------------------------------------------------------------------------
+
+    private CrossActivityAppLifecycleManager createManager(AppLifecycleStatsStore store) {
+        final CrossActivityAppLifecycleManager manager = new CrossActivityAppLifecycleManager();
+        manager.addListener(store);
+
+        return manager;
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.cookingfox.android.app_lifecycle.benchmarks;
+
+import com.cookingfox.android.app_lifecycle.benchmarks.fixture.BlackholeListener;
+import com.cookingfox.android.app_lifecycle.benchmarks.fixture.FirstActivity;
+import com.cookingfox.android.app_lifecycle.impl.manager.CrossActivityAppLifecycleManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks event dispatch of {@link CrossActivityAppLifecycleManager} for different numbers of
+ * listeners, by bringing the app to background and foreground (start, resume, pause, stop).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class DispatchBenchmark {
+
+    @Param({"1", "10", "100", "10000"})
+    public int numListeners;
+
+    private final FirstActivity activity = new FirstActivity();
+
+    private CrossActivityAppLifecycleManager manager;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        manager = new CrossActivityAppLifecycleManager();
+
+        for (int i = 0; i < numListeners; i++) {
+            manager.addListener(new BlackholeListener(blackhole));
+        }
+
+        manager.onCreate(activity);
+    }
+
+    @Benchmark
+    public void backgroundForegroundCycle() {
+        manager.onStart(activity);
+        manager.onResume(activity);
+        manager.onPause(activity);
+        manager.onStop(activity);
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.cookingfox.android.app_lifecycle.benchmarks;
+
+import com.cookingfox.android.app_lifecycle.benchmarks.fixture.BlackholeListener;
+import com.cookingfox.android.app_lifecycle.benchmarks.fixture.FirstActivity;
+import com.cookingfox.android.app_lifecycle.benchmarks.fixture.SecondActivity;
+import com.cookingfox.android.app_lifecycle.impl.manager.AbstractAppLifecycleManager;
+import com.cookingfox.android.app_lifecycle.impl.manager.ActivityCountingAppLifecycleManager;
+import com.cookingfox.android.app_lifecycle.impl.manager.CrossActivityAppLifecycleManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks complete lifecycle sequences of {@link CrossActivityAppLifecycleManager} and
+ * {@link ActivityCountingAppLifecycleManager}, with a single listener.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class LifecycleCycleBenchmark {
+
+    @Param({"crossActivity", "activityCounting"})
+    public String managerType;
+
+    private final FirstActivity firstActivity = new FirstActivity();
+    private final SecondActivity secondActivity = new SecondActivity();
+
+    /**
+     * Manager of an app that is not running.
+     */
+    private AbstractAppLifecycleManager exitedManager;
+
+    /**
+     * Manager of an app that shows the first activity.
+     */
+    private AbstractAppLifecycleManager runningManager;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        exitedManager = createManager();
+        exitedManager.addListener(new BlackholeListener(blackhole));
+
+        runningManager = createManager();
+        runningManager.addListener(new BlackholeListener(blackhole));
+        runningManager.onCreate(firstActivity);
+        runningManager.onStart(firstActivity);
+        runningManager.onResume(firstActivity);
+    }
+
+    /**
+     * Launch and exit the app: create to finish.
+     */
+    @Benchmark
+    public void createToFinish() {
+        exitedManager.onCreate(firstActivity);
+        exitedManager.onStart(firstActivity);
+        exitedManager.onResume(firstActivity);
+        exitedManager.onPause(firstActivity);
+        exitedManager.onStop(firstActivity);
+        exitedManager.onFinish(firstActivity);
+    }
+
+    /**
+     * Navigate from the first to the second activity and back, while the app is running.
+     */
+    @Benchmark
+    public void crossActivityNavigation() {
+        // start second activity
+        runningManager.onPause(firstActivity);
+        runningManager.onCreate(secondActivity);
+        runningManager.onStart(secondActivity);
+        runningManager.onResume(secondActivity);
+        runningManager.onStop(firstActivity);
+
+        // go back to first activity
+        runningManager.onPause(secondActivity);
+        runningManager.onStart(firstActivity);
+        runningManager.onResume(firstActivity);
+        runningManager.onStop(secondActivity);
+        runningManager.onFinish(secondActivity);
+    }
+
+    private AbstractAppLifecycleManager createManager() {
+        if ("activityCounting".equals(managerType)) {
+            return new ActivityCountingAppLifecycleManager();
+        }
+
+        return new CrossActivityAppLifecycleManager();
+    }
+
+}
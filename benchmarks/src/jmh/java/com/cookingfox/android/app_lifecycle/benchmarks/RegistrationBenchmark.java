@@ -0,0 +1,80 @@
+package com.cookingfox.android.app_lifecycle.benchmarks;
+
+import com.cookingfox.android.app_lifecycle.api.listener.AppLifecycleEventListener;
+import com.cookingfox.android.app_lifecycle.impl.listener.DefaultAppLifecycleListener;
+import com.cookingfox.android.app_lifecycle.impl.manager.CrossActivityAppLifecycleManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks listener registration churn of {@link CrossActivityAppLifecycleManager}: adding and
+ * removing a screen-scoped listener, or a feature module's batch of listeners, while other
+ * listeners are registered.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class RegistrationBenchmark {
+
+    @Param({"1", "10", "100", "10000"})
+    public int numListeners;
+
+    /**
+     * Number of listeners a feature module registers at once.
+     */
+    private static final int BATCH_SIZE = 50;
+
+    private final AppLifecycleEventListener churnListener = new DefaultAppLifecycleListener();
+
+    private final List<AppLifecycleEventListener> batch = new ArrayList<AppLifecycleEventListener>();
+
+    private CrossActivityAppLifecycleManager manager;
+
+    @Setup
+    public void setUp() {
+        manager = new CrossActivityAppLifecycleManager();
+
+        for (int i = 1; i < numListeners; i++) {
+            manager.addListener(new DefaultAppLifecycleListener());
+        }
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new DefaultAppLifecycleListener());
+        }
+    }
+
+    @Benchmark
+    public void addRemoveChurn() {
+        manager.addListener(churnListener);
+        manager.removeListener(churnListener);
+    }
+
+    @Benchmark
+    public void addRemoveBatch() {
+        manager.addListeners(batch);
+        manager.removeListeners(batch);
+    }
+
+    @Benchmark
+    public void addRemoveBatchOneByOne() {
+        for (AppLifecycleEventListener listener : batch) {
+            manager.addListener(listener);
+        }
+
+        for (AppLifecycleEventListener listener : batch) {
+            manager.removeListener(listener);
+        }
+    }
+
+}
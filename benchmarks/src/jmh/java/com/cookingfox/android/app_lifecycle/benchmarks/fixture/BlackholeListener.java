@@ -0,0 +1,49 @@
+package com.cookingfox.android.app_lifecycle.benchmarks.fixture;
+
+import com.cookingfox.android.app_lifecycle.impl.listener.PersistentAppLifecycleListener;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Persistent listener that consumes every event, so it is not removed on finish and the listener
+ * calls can not be eliminated.
+ */
+public class BlackholeListener extends PersistentAppLifecycleListener {
+
+    private final Blackhole blackhole;
+
+    public BlackholeListener(Blackhole blackhole) {
+        this.blackhole = blackhole;
+    }
+
+    @Override
+    public void onAppCreated(Class<?> origin) {
+        blackhole.consume(origin);
+    }
+
+    @Override
+    public void onAppStarted(Class<?> origin) {
+        blackhole.consume(origin);
+    }
+
+    @Override
+    public void onAppResumed(Class<?> origin) {
+        blackhole.consume(origin);
+    }
+
+    @Override
+    public void onAppPaused(Class<?> origin) {
+        blackhole.consume(origin);
+    }
+
+    @Override
+    public void onAppStopped(Class<?> origin) {
+        blackhole.consume(origin);
+    }
+
+    @Override
+    public void onAppFinished(Class<?> origin) {
+        blackhole.consume(origin);
+    }
+
+}
@@ -0,0 +1,6 @@
+package com.cookingfox.android.app_lifecycle.benchmarks.fixture;
+
+import android.app.Activity;
+
+public class SecondActivity extends Activity {
+}
@@ -0,0 +1,8 @@
+package android.app;
+
+/**
+ * Stub of the Android activity, so the app lifecycle manager can be benchmarked on the JVM. The
+ * manager only uses the activity's class.
+ */
+public class Activity {
+}
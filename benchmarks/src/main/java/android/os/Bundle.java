@@ -0,0 +1,23 @@
+package android.os;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stub of the Android bundle, so the app lifecycle manager can be benchmarked on the JVM.
+ */
+public final class Bundle {
+
+    private final Map<String, Object> values = new HashMap<String, Object>();
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        final Object value = values.get(key);
+
+        return value == null ? defaultValue : (Boolean) value;
+    }
+
+    public void putBoolean(String key, boolean value) {
+        values.put(key, value);
+    }
+
+}
@@ -0,0 +1,23 @@
+package android.os;
+
+/**
+ * Stub of the Android handler, so the app lifecycle manager can be benchmarked on the JVM. The
+ * benchmarks do not use delayed or idle tasks.
+ */
+public class Handler {
+
+    public Handler(Looper looper) {
+    }
+
+    public boolean post(Runnable task) {
+        throw new UnsupportedOperationException();
+    }
+
+    public boolean postDelayed(Runnable task, long delayMillis) {
+        throw new UnsupportedOperationException();
+    }
+
+    public void removeCallbacks(Runnable task) {
+    }
+
+}
@@ -0,0 +1,16 @@
+package android.os;
+
+/**
+ * Stub of the Android looper, so the app lifecycle manager can be benchmarked on the JVM.
+ */
+public class Looper {
+
+    public static Looper getMainLooper() {
+        return null;
+    }
+
+    public static MessageQueue myQueue() {
+        return null;
+    }
+
+}
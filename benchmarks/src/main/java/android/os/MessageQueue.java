@@ -0,0 +1,18 @@
+package android.os;
+
+/**
+ * Stub of the Android message queue, so the app lifecycle manager can be benchmarked on the JVM.
+ */
+public class MessageQueue {
+
+    public void addIdleHandler(IdleHandler handler) {
+        throw new UnsupportedOperationException();
+    }
+
+    public interface IdleHandler {
+
+        boolean queueIdle();
+
+    }
+
+}
@@ -0,0 +1,16 @@
+package android.os;
+
+/**
+ * Stub of the Android system clock, so the app lifecycle manager can be benchmarked on the JVM.
+ */
+public final class SystemClock {
+
+    public static long uptimeMillis() {
+        return System.nanoTime() / 1000000;
+    }
+
+    public static long elapsedRealtime() {
+        return System.nanoTime() / 1000000;
+    }
+
+}